@@ -0,0 +1,55 @@
+package com.teamformation.benchmark;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.TeamFormationResult;
+import com.teamformation.service.TeamFormationService;
+import com.teamformation.service.formation.FormationOptimizer;
+import com.teamformation.service.formation.TeamFormationStrategyRegistry;
+import com.teamformation.util.ExcelGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ExcelGenerator.generateExcel for a formed result of every event type
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExcelExportBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    @Param({"SQL_BOOTCAMP", "SQL_HACKATHON", "PYTHON_HACKATHON", "SELENIUM_HACKATHON",
+            "PHASE1_API_HACKATHON", "PHASE2_API_HACKATHON", "RECIPE_SCRAPING_HACKATHON"})
+    public EventType eventType;
+
+    private TeamFormationResult result;
+
+    @Setup
+    public void setUp() {
+        result = new TeamFormationService(TeamFormationStrategyRegistry.withDefaultStrategies(), new FormationOptimizer()).formTeams(
+                RosterGenerator.students(eventType, size, RosterGenerator.DEFAULT_SEED), eventType);
+    }
+
+    @Benchmark
+    public ByteArrayInputStream generateExcel() throws IOException {
+        return ExcelGenerator.generateExcel(result);
+    }
+}
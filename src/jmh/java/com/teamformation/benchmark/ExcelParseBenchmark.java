@@ -0,0 +1,70 @@
+package com.teamformation.benchmark;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.Student;
+import com.teamformation.service.ExcelService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ExcelService parsing of a generated .xlsx roster, in memory (sequential and in parallel
+ * chunks) and streaming
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExcelParseBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    @Param({"SQL_BOOTCAMP", "SQL_HACKATHON", "PYTHON_HACKATHON", "SELENIUM_HACKATHON",
+            "PHASE1_API_HACKATHON", "PHASE2_API_HACKATHON", "RECIPE_SCRAPING_HACKATHON"})
+    public EventType eventType;
+
+    private final ExcelService excelService = new ExcelService();
+    private final ExcelService parallelExcelService = new ExcelService(1, ExcelService.DEFAULT_CHUNK_ROWS, 0);
+    private byte[] workbook;
+
+    @Setup
+    public void setUp() throws Exception {
+        workbook = RosterGenerator.xlsx(eventType, size, RosterGenerator.DEFAULT_SEED);
+    }
+
+    @Benchmark
+    public List<Student> parseExcelFile() throws Exception {
+        return excelService.parseExcelFile(new ByteArrayInputStream(workbook), eventType);
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallelExcelService.shutdown();
+    }
+
+    @Benchmark
+    public List<Student> parseExcelFileParallel() throws Exception {
+        return parallelExcelService.parseExcelFile(new ByteArrayInputStream(workbook), eventType);
+    }
+
+    @Benchmark
+    public List<Student> parseExcelFileStreaming() throws Exception {
+        return excelService.parseExcelFileStreaming(new ByteArrayInputStream(workbook), eventType);
+    }
+}
@@ -0,0 +1,145 @@
+package com.teamformation.benchmark;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.Student;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded synthetic rosters for the benchmarks.
+ * The same (event type, size, seed) always produces the same students and the same workbook,
+ * so results can be compared across commits.
+ */
+public final class RosterGenerator {
+
+    public static final long DEFAULT_SEED = 20240417L;
+
+    private static final String[] TRACKS = {"SDET", "DA", "DVLPR", "SMPO"};
+    private static final String[] TIME_ZONES = {
+            "EST", "Eastern Time", "CST", "Central (GMT-6)", "PST", "Pacific Time", "MST", "IST", "GMT", "UTC+1"
+    };
+    private static final String[] EXPERTISE = {"Beginner", "Intermediate", "Advanced"};
+    private static final String[] YES_NO = {"Yes", "No"};
+
+    private RosterGenerator() {
+    }
+
+    /**
+     * Students as ExcelService would produce them for the given event type
+     */
+    public static List<Student> students(EventType eventType, int size, long seed) {
+        Random random = new Random(seed);
+        List<Student> students = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            String track = TRACKS[random.nextInt(TRACKS.length)];
+            String batch = String.valueOf(1 + random.nextInt(40));
+
+            Student student = Student.builder()
+                    .timestamp("2024-04-" + (1 + random.nextInt(28)))
+                    .email("student" + i + "@example.com")
+                    .name("Student " + i)
+                    .track(track)
+                    .batch(batch)
+                    .workingStatus(YES_NO[random.nextInt(2)])
+                    .timeZone(TIME_ZONES[random.nextInt(TIME_ZONES.length)])
+                    .dsAlgoCompletion(YES_NO[random.nextInt(2)])
+                    .apiBootcampCompletion(YES_NO[random.nextInt(2)])
+                    .build();
+
+            String previous = random.nextInt(3) == 0 ? "Yes" : "No";
+            student.setPreviousHackathon(previous);
+            student.setPreviousHackathonParticipation(previous);
+
+            if (eventType == EventType.SQL_BOOTCAMP) {
+                student.setCourseType(random.nextInt(4) == 0 ? "Advanced" : "Full Course");
+            } else {
+                student.setCourseType(eventType.getDisplayName());
+                student.setSqlExpertiseLevel(EXPERTISE[random.nextInt(EXPERTISE.length)]);
+            }
+
+            students.add(student);
+        }
+
+        return students;
+    }
+
+    /**
+     * An .xlsx upload with the column layout the coordinators use for the given event type
+     */
+    public static byte[] xlsx(EventType eventType, int size, long seed) throws IOException {
+        List<Student> students = students(eventType, size, seed);
+        String[] headers = headers(eventType);
+
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Form Responses 1");
+
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                headerRow.createCell(i).setCellValue(headers[i]);
+            }
+
+            for (int r = 0; r < students.size(); r++) {
+                String[] values = values(eventType, students.get(r));
+                Row row = sheet.createRow(r + 1);
+                for (int i = 0; i < values.length; i++) {
+                    row.createCell(i).setCellValue(values[i]);
+                }
+            }
+
+            workbook.write(out);
+            workbook.dispose();
+            return out.toByteArray();
+        }
+    }
+
+    private static String[] headers(EventType eventType) {
+        switch (eventType) {
+            case SQL_BOOTCAMP:
+                return new String[]{"Timestamp", "Email Address", "Full Name", "Track", "Batch No", "Course Type"};
+            case SQL_HACKATHON:
+                return new String[]{"Timestamp", "Email Address", "Full Name", "Track with Batch No",
+                        "Which time zone are you in?", "SQL expertise level", "Previous hackathon participation"};
+            case PYTHON_HACKATHON:
+                return new String[]{"Timestamp", "Email Address", "Full Name", "Track with Batch No",
+                        "Which time zone are you in?", "Python expertise level", "Previous Python hackathon participation"};
+            case PHASE1_API_HACKATHON:
+            case PHASE2_API_HACKATHON:
+                return new String[]{"Timestamp", "Email Address", "Full Name", "Track", "Batch No",
+                        "Are you working?", "Which time zone are you in?", "DSAlgo completed",
+                        "Have you completed USER API bootcamp", "Have you participated in any API Hackathon"};
+            default:
+                return new String[]{"Timestamp", "Email Address", "Full Name", "Track with Batch No",
+                        "Are you working?", "Which time zone are you in?", "DSAlgo completed",
+                        "Previous hackathon participation"};
+        }
+    }
+
+    private static String[] values(EventType eventType, Student s) {
+        String trackWithBatch = s.getTrack() + " " + s.getBatch();
+        switch (eventType) {
+            case SQL_BOOTCAMP:
+                return new String[]{s.getTimestamp(), s.getEmail(), s.getName(), s.getTrack(), s.getBatch(), s.getCourseType()};
+            case SQL_HACKATHON:
+            case PYTHON_HACKATHON:
+                return new String[]{s.getTimestamp(), s.getEmail(), s.getName(), trackWithBatch,
+                        s.getTimeZone(), s.getSqlExpertiseLevel(), s.getPreviousHackathon()};
+            case PHASE1_API_HACKATHON:
+            case PHASE2_API_HACKATHON:
+                return new String[]{s.getTimestamp(), s.getEmail(), s.getName(), s.getTrack(), s.getBatch(),
+                        s.getWorkingStatus(), s.getTimeZone(), s.getDsAlgoCompletion(),
+                        s.getApiBootcampCompletion(), s.getPreviousHackathon()};
+            default:
+                return new String[]{s.getTimestamp(), s.getEmail(), s.getName(), trackWithBatch,
+                        s.getWorkingStatus(), s.getTimeZone(), s.getDsAlgoCompletion(), s.getPreviousHackathon()};
+        }
+    }
+}
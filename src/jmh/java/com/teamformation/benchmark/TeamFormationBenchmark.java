@@ -0,0 +1,56 @@
+package com.teamformation.benchmark;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.Student;
+import com.teamformation.model.TeamFormationResult;
+import com.teamformation.service.TeamFormationService;
+import com.teamformation.service.formation.FormationOptimizer;
+import com.teamformation.service.formation.TeamFormationStrategyRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures TeamFormationService.formTeams for every event type
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TeamFormationBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    @Param({"SQL_BOOTCAMP", "SQL_HACKATHON", "PYTHON_HACKATHON", "SELENIUM_HACKATHON",
+            "PHASE1_API_HACKATHON", "PHASE2_API_HACKATHON", "RECIPE_SCRAPING_HACKATHON"})
+    public EventType eventType;
+
+    private final TeamFormationService teamFormationService = new TeamFormationService(TeamFormationStrategyRegistry.withDefaultStrategies(), new FormationOptimizer());
+    private List<Student> students;
+
+    @Setup
+    public void setUp() {
+        students = RosterGenerator.students(eventType, size, RosterGenerator.DEFAULT_SEED);
+    }
+
+    @Benchmark
+    public TeamFormationResult formTeams() {
+        // formTeams shuffles the list it is given, so each invocation gets its own copy
+        return teamFormationService.formTeams(new ArrayList<>(students), eventType);
+    }
+}
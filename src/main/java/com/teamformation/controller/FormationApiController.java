@@ -0,0 +1,382 @@
+package com.teamformation.controller;
+
+import com.teamformation.metrics.FormationMetrics;
+import com.teamformation.model.EventType;
+import com.teamformation.model.FormationRequest;
+import com.teamformation.model.RosterIssue;
+import com.teamformation.model.RosterUpdate;
+import com.teamformation.model.Student;
+import com.teamformation.model.TeamFormationResult;
+import com.teamformation.model.ValidationReport;
+import com.teamformation.service.BatchFormation;
+import com.teamformation.service.BatchFormationService;
+import com.teamformation.service.FormationJobService;
+import com.teamformation.service.ResultStore;
+import com.teamformation.service.RosterFormat;
+import com.teamformation.service.TeamFormationService;
+import com.teamformation.util.ExcelGenerator;
+import com.teamformation.util.FormationJsonWriter;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * JSON API for forming teams without the upload pages.
+ * A roster is posted as JSON, as a CSV, TSV or Excel request body, or as a multipart file, and teams
+ * are formed on the request thread. Results are kept in the result store and returned a page of teams
+ * at a time; responses are gzip-compressed when the client accepts it. A stored formation can be updated
+ * with students joining and leaving without forming its teams again. Several events can be formed from
+ * one upload, a zip of rosters or a workbook with a sheet per event, and downloaded together as a zip.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/formations")
+public class FormationApiController {
+
+    private static final String XLSX_MEDIA_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    private static final String XLS_MEDIA_TYPE = "application/vnd.ms-excel";
+    private static final String CSV_MEDIA_TYPE = "text/csv";
+    private static final String TSV_MEDIA_TYPE = "text/tab-separated-values";
+
+    private final FormationJobService formationJobService;
+    private final BatchFormationService batchFormationService;
+    private final TeamFormationService teamFormationService;
+    private final ResultStore resultStore;
+    private final FormationMetrics metrics;
+    private final Semaphore permits;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public FormationApiController(FormationJobService formationJobService,
+                                  BatchFormationService batchFormationService,
+                                  TeamFormationService teamFormationService,
+                                  ResultStore resultStore,
+                                  FormationMetrics metrics,
+                                  @Value("${teamformation.api.max-concurrent:2}") int maxConcurrent,
+                                  @Value("${teamformation.api.default-page-size:50}") int defaultPageSize,
+                                  @Value("${teamformation.api.max-page-size:1000}") int maxPageSize) {
+        this.formationJobService = formationJobService;
+        this.batchFormationService = batchFormationService;
+        this.teamFormationService = teamFormationService;
+        this.resultStore = resultStore;
+        this.metrics = metrics;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> formFromJson(@RequestBody FormationRequest request,
+                                                              @RequestParam(value = "page", defaultValue = "0") int page,
+                                                              @RequestParam(value = "size", required = false) Integer size) {
+        if (request.getEventType() == null) {
+            throw new IllegalArgumentException("eventType is required");
+        }
+        int pageSize = pageSize(page, size);
+
+        // Students are checked like rows of a file; those without an email or name are skipped
+        ValidationReport report = new ValidationReport();
+        List<Student> students = new ArrayList<>();
+        List<Student> requested = request.getStudents() != null ? request.getStudents() : new ArrayList<>();
+        for (int i = 0; i < requested.size(); i++) {
+            Student student = requested.get(i);
+            if (student == null || isBlank(student.getEmail()) || isBlank(student.getName())) {
+                report.add(RosterIssue.row(RosterIssue.Kind.INVALID_ROW,
+                        "Student has no email or name", i));
+            } else {
+                students.add(student);
+            }
+        }
+        if (students.isEmpty()) {
+            return error(HttpStatus.UNPROCESSABLE_ENTITY, "No valid students in the request", report);
+        }
+
+        if (!permits.tryAcquire()) {
+            return busy();
+        }
+        try {
+            TeamFormationResult result = teamFormationService.formTeams(students, request.getEventType(), request.getSeed());
+            return created(result, page, pageSize, report);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> formFromUpload(@RequestParam("file") MultipartFile file,
+                                                                @RequestParam("eventType") String eventType,
+                                                                @RequestParam(value = "seed", required = false) Long seed,
+                                                                @RequestParam(value = "page", defaultValue = "0") int page,
+                                                                @RequestParam(value = "size", required = false) Integer size)
+            throws Exception {
+        RosterFormat format = RosterFormat.of(file.getOriginalFilename());
+        if (format == null) {
+            throw new IllegalArgumentException("Only Excel (.xlsx, .xls) and CSV/TSV (.csv, .tsv) files are allowed");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return formFromFile(in, format, eventType, seed, page, size);
+        }
+    }
+
+    @PostMapping(consumes = {CSV_MEDIA_TYPE, TSV_MEDIA_TYPE, XLSX_MEDIA_TYPE, XLS_MEDIA_TYPE})
+    public ResponseEntity<StreamingResponseBody> formFromBody(HttpServletRequest request,
+                                                              @RequestParam("eventType") String eventType,
+                                                              @RequestParam(value = "seed", required = false) Long seed,
+                                                              @RequestParam(value = "page", defaultValue = "0") int page,
+                                                              @RequestParam(value = "size", required = false) Integer size)
+            throws Exception {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        RosterFormat format;
+        if (contentType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) {
+            format = RosterFormat.CSV;
+        } else if (contentType.isCompatibleWith(MediaType.parseMediaType(TSV_MEDIA_TYPE))) {
+            format = RosterFormat.TSV;
+        } else if (contentType.isCompatibleWith(MediaType.parseMediaType(XLSX_MEDIA_TYPE))) {
+            format = RosterFormat.XLSX;
+        } else {
+            format = RosterFormat.XLS;
+        }
+        return formFromFile(request.getInputStream(), format, eventType, seed, page, size);
+    }
+
+    /**
+     * Forms every event of a zip of rosters or a workbook with a sheet per event, matched to events by
+     * file or sheet name. Events are formed concurrently and stored like single formations; the response
+     * lists each event's outcome and where to download all of them.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> formBatch(@RequestParam("file") MultipartFile file,
+                                                           @RequestParam(value = "seed", required = false) Long seed)
+            throws Exception {
+        if (!permits.tryAcquire()) {
+            return busy();
+        }
+        BatchFormation batch;
+        try (InputStream in = file.getInputStream()) {
+            batch = batchFormationService.form(in, file.getOriginalFilename(), seed);
+        } catch (RejectedExecutionException e) {
+            return busy();
+        } finally {
+            permits.release();
+        }
+
+        List<String> ids = batch.getEvents().stream()
+                .map(BatchFormation.Event::getResultId)
+                .filter(id -> id != null)
+                .collect(Collectors.toList());
+        String download = ids.isEmpty() ? null : "/api/v1/formations/batch/download?ids=" + String.join(",", ids);
+        StreamingResponseBody body = out -> FormationJsonWriter.writeBatch(batch, download, out);
+        return ResponseEntity.status(batch.hasResults() ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Downloads stored formations as a zip with one workbook per formation. Expired IDs are left out.
+     */
+    @GetMapping("/batch/download")
+    public ResponseEntity<StreamingResponseBody> downloadBatch(@RequestParam("ids") List<String> ids) {
+        List<String> found = new ArrayList<>();
+        List<TeamFormationResult> results = new ArrayList<>();
+        for (String id : ids) {
+            TeamFormationResult result = resultStore.get(id);
+            if (result != null) {
+                found.add(id);
+                results.add(result);
+            }
+        }
+        if (results.isEmpty()) {
+            return error(HttpStatus.NOT_FOUND, "Unknown or expired formations: " + String.join(",", ids), null);
+        }
+
+        StreamingResponseBody body = out -> {
+            Timer.Sample sample = metrics.start();
+            try (ZipOutputStream zip = new ZipOutputStream(out)) {
+                for (int i = 0; i < results.size(); i++) {
+                    TeamFormationResult result = results.get(i);
+                    String event = result.getEventType() != null ? result.getEventType().name() : found.get(i);
+                    zip.putNextEntry(new ZipEntry((i + 1) + "-" + event + ".xlsx"));
+                    ExcelGenerator.writeExcel(result, zip);
+                    zip.closeEntry();
+                }
+            } finally {
+                metrics.exported(sample, "zip");
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=team_formations.zip")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StreamingResponseBody> getFormation(@PathVariable String id,
+                                                              @RequestParam(value = "page", defaultValue = "0") int page,
+                                                              @RequestParam(value = "size", required = false) Integer size) {
+        int pageSize = pageSize(page, size);
+        TeamFormationResult result = resultStore.get(id);
+        if (result == null) {
+            return error(HttpStatus.NOT_FOUND, "Unknown or expired formation: " + id, null);
+        }
+
+        StreamingResponseBody body = out -> writeResult(id, result, page, pageSize, null, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Applies students joining and leaving to a stored formation. The updated teams are stored as a new
+     * formation; the original stays available under its own ID.
+     */
+    @PostMapping(value = "/{id}/updates", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> updateFormation(@PathVariable String id,
+                                                                 @RequestBody RosterUpdate update,
+                                                                 @RequestParam(value = "page", defaultValue = "0") int page,
+                                                                 @RequestParam(value = "size", required = false) Integer size) {
+        int pageSize = pageSize(page, size);
+        TeamFormationResult result = resultStore.get(id);
+        if (result == null) {
+            return error(HttpStatus.NOT_FOUND, "Unknown or expired formation: " + id, null);
+        }
+
+        List<Student> added = update.getAdded() != null ? update.getAdded() : new ArrayList<>();
+        List<String> removed = update.getRemoved() != null ? update.getRemoved() : new ArrayList<>();
+
+        if (!permits.tryAcquire()) {
+            return busy();
+        }
+        try {
+            ValidationReport report = new ValidationReport();
+            TeamFormationResult updated = teamFormationService.updateTeams(result, added, removed, report);
+            return created(updated, page, pageSize, report);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteFormation(@PathVariable String id) {
+        resultStore.remove(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(IOException.class)
+    public ResponseEntity<Map<String, Object>> unreadableRoster(IOException e) {
+        log.warn("Could not read roster posted to the API: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Error processing file: " + e.getMessage()));
+    }
+
+    private ResponseEntity<StreamingResponseBody> formFromFile(InputStream in, RosterFormat format, String eventType,
+                                                               Long seed, int page, Integer size) throws Exception {
+        EventType parsedEventType = eventType(eventType);
+        int pageSize = pageSize(page, size);
+
+        if (!permits.tryAcquire()) {
+            return busy();
+        }
+        try {
+            ValidationReport report = new ValidationReport();
+            TeamFormationResult result = formationJobService.form(in, format, parsedEventType, seed, report);
+            if (result == null) {
+                String message = report.isFatal()
+                        ? "The file could not be read: " + problems(report.getIssueCount()) + " found"
+                        : "No valid data found in the uploaded file";
+                return error(HttpStatus.UNPROCESSABLE_ENTITY, message, report);
+            }
+            return created(result, page, pageSize, report);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> created(TeamFormationResult result, int page, int pageSize,
+                                                          ValidationReport report) {
+        String id = resultStore.put(result);
+        log.info("API formed {} teams from {} students as {}", result.getTeams().size(), result.getTotalStudents(), id);
+
+        StreamingResponseBody body = out -> writeResult(id, result, page, pageSize, report, out);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(HttpHeaders.LOCATION, "/api/v1/formations/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private void writeResult(String id, TeamFormationResult result, int page, int pageSize, ValidationReport report,
+                             OutputStream out) throws IOException {
+        Timer.Sample sample = metrics.start();
+        try {
+            FormationJsonWriter.writeResult(id, result, page, pageSize, report, out);
+        } finally {
+            metrics.exported(sample, "json");
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> FormationJsonWriter.writeError("The server is busy forming other teams. Please retry.", null, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message, ValidationReport report) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> FormationJsonWriter.writeError(message, report, out));
+    }
+
+    private static EventType eventType(String name) {
+        try {
+            return EventType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown eventType: " + name);
+        }
+    }
+
+    private int pageSize(int page, Integer size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("size must be between 1 and " + maxPageSize);
+        }
+        return size;
+    }
+
+    private static String problems(int count) {
+        return count == 1 ? "1 problem" : count + " problems";
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
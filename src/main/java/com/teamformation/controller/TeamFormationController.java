@@ -1,12 +1,16 @@
 package com.teamformation.controller;
 
+import com.teamformation.metrics.FormationMetrics;
 import com.teamformation.model.EventType;
 import com.teamformation.model.TeamFormationResult;
-import com.teamformation.service.ExcelService;
-import com.teamformation.service.TeamFormationService;
+import com.teamformation.model.ValidationReport;
+import com.teamformation.service.FormationJob;
+import com.teamformation.service.FormationJobService;
+import com.teamformation.service.ResultStore;
+import com.teamformation.service.RosterFormat;
 import com.teamformation.util.ExcelGenerator;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -15,18 +19,23 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.servlet.http.HttpSession;
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 @RequiredArgsConstructor
 public class TeamFormationController {
 
-    private final ExcelService excelService;
-    private final TeamFormationService teamFormationService;
+    private static final String RESULT_ID = "teamFormationResultId";
+
+    private final FormationJobService formationJobService;
+    private final ResultStore resultStore;
+    private final FormationMetrics metrics;
 
     @GetMapping("/")
     public String home(Model model) {
@@ -37,6 +46,7 @@ public class TeamFormationController {
     @PostMapping("/upload")
     public String uploadFile(@RequestParam("file") MultipartFile file,
                              @RequestParam("eventType") String eventType,
+                             @RequestParam(value = "seed", required = false) Long seed,
                              RedirectAttributes redirectAttributes,
                              HttpSession session) {
         
@@ -48,45 +58,21 @@ public class TeamFormationController {
         try {
             // Check file extension
             String filename = file.getOriginalFilename();
-            if (filename == null || !(filename.endsWith(".xlsx") || filename.endsWith(".xls"))) {
-                redirectAttributes.addFlashAttribute("errorMessage", "Only Excel files (.xlsx, .xls) are allowed");
+            if (RosterFormat.of(filename) == null) {
+                redirectAttributes.addFlashAttribute("errorMessage", "Only Excel (.xlsx, .xls) and CSV/TSV (.csv, .tsv) files are allowed");
                 return "redirect:/";
             }
             
             // Parse event type
             EventType parsedEventType = EventType.valueOf(eventType);
 
-            // Parse file and form teams based on event type
-            var students = excelService.parseExcelFile(file.getInputStream(), parsedEventType);
-            
-            if (students.isEmpty()) {
-                redirectAttributes.addFlashAttribute("errorMessage", "No valid data found in the Excel file");
-                return "redirect:/";
-            }
-            
-            TeamFormationResult result = teamFormationService.formTeams(students, parsedEventType);
-            
-            // Store result in session
-            session.setAttribute("teamFormationResult", result);
-            
-            return "redirect:/results";
-        } catch (com.teamformation.exception.ExcelFormulaException e) {
-            // Create a detailed HTML error message for formula cell errors
-            String detailedErrorMessage = 
-                "<strong>Excel Formula Error</strong><br>" +
-                "Problem: Cannot get a STRING value from a NUMERIC formula cell<br>" + 
-                "Location: " + e.getSheetName() + ", Cell " + e.getCellReference() + 
-                " (Row: " + (e.getRowIndex() + 1) + ", Column: " + e.getCellReference().replaceAll("[0-9]", "") + ")<br><br>" +
-                "<strong>How to fix:</strong><br>" +
-                "1. Open your Excel file<br>" +
-                "2. Go to sheet: " + e.getSheetName() + "<br>" +
-                "3. Find cell: " + e.getCellReference() + "<br>" +
-                "4. Replace the formula with a plain text value";
+            // Parsing and team formation run in the background; the job page polls for progress
+            FormationJob job = formationJobService.submit(file, parsedEventType, seed, session.getId());
             
-            redirectAttributes.addFlashAttribute("errorMessage", detailedErrorMessage);
-            
-            // Also log the error for debugging
-            System.err.println("EXCEL_FORMULA_ERROR_CONTROLLER: " + e.getMessage());
+            return "redirect:/jobs/" + job.getId();
+        } catch (RejectedExecutionException e) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "The server is busy processing other uploads. Please try again in a moment.");
             return "redirect:/";
         } catch (Exception e) {
             // For other exceptions, still show a message
@@ -97,44 +83,122 @@ public class TeamFormationController {
         }
     }
 
-    @GetMapping("/results")
-    public String showResults(HttpSession session, Model model) {
-        TeamFormationResult result = (TeamFormationResult) session.getAttribute("teamFormationResult");
-        
-        if (result == null) {
+    @GetMapping("/jobs/{id}")
+    public String showJob(@PathVariable String id, HttpSession session, Model model) {
+        FormationJob job = formationJobService.getJob(id, session.getId());
+
+        if (job == null) {
             return "redirect:/";
         }
-        
-        // For SQL Bootcamp, classify teams into advanced course and full course
-        if (result.getEventType() == EventType.SQL_BOOTCAMP) {
-            result.classifyTeamsForSqlBootcamp();
+        if (job.getStatus().isFinished()) {
+            return "redirect:/jobs/" + id + "/result";
+        }
+
+        model.addAttribute("job", job);
+        return "job";
+    }
+
+    @GetMapping("/jobs/{id}/status")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> jobStatus(@PathVariable String id, HttpSession session) {
+        FormationJob job = formationJobService.getJob(id, session.getId());
+
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", job.getId());
+        status.put("status", job.getStatus());
+        status.put("finished", job.getStatus().isFinished());
+        status.put("rowsParsed", job.getRowsParsed());
+        status.put("teamsFormed", job.getTeamsFormed());
+        status.put("cached", job.isCached());
+        return ResponseEntity.ok(status);
+    }
+
+    @GetMapping("/jobs/{id}/result")
+    public String claimJobResult(@PathVariable String id,
+                                 RedirectAttributes redirectAttributes,
+                                 HttpSession session) {
+        FormationJob job = formationJobService.getJob(id, session.getId());
+
+        if (job == null) {
+            return "redirect:/";
+        }
+        if (!job.getStatus().isFinished()) {
+            return "redirect:/jobs/" + id;
         }
+
+        formationJobService.remove(id);
+
+        // Every problem found in the roster is shown at once, with the results or the error
+        ValidationReport report = job.getReport();
+        if (report != null && report.hasIssues()) {
+            redirectAttributes.addFlashAttribute("rosterIssues", report.getIssues());
+            redirectAttributes.addFlashAttribute("rosterIssueCount", report.getIssueCount());
+        }
+
+        if (job.getStatus() == FormationJob.Status.FAILED) {
+            redirectAttributes.addFlashAttribute("errorMessage", job.getErrorMessage());
+            return "redirect:/";
+        }
+
+        // The session only refers to the result; replace any earlier result of this session
+        String previousResultId = (String) session.getAttribute(RESULT_ID);
+        if (previousResultId != null) {
+            resultStore.remove(previousResultId);
+        }
+        session.setAttribute(RESULT_ID, job.getResultId());
         
+        return "redirect:/results";
+    }
+
+    @GetMapping("/results")
+    public String showResults(HttpSession session, Model model, RedirectAttributes redirectAttributes) {
+        String resultId = (String) session.getAttribute(RESULT_ID);
+        if (resultId == null) {
+            return "redirect:/";
+        }
+
+        TeamFormationResult result = resultStore.get(resultId);
+        if (result == null) {
+            session.removeAttribute(RESULT_ID);
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "Your team formation results have expired. Please upload the file again.");
+            return "redirect:/";
+        }
+
         model.addAttribute("result", result);
         return "results";
     }
 
     @GetMapping("/download")
-    public ResponseEntity<InputStreamResource> downloadExcel(HttpSession session) {
-        TeamFormationResult result = (TeamFormationResult) session.getAttribute("teamFormationResult");
+    public ResponseEntity<StreamingResponseBody> downloadExcel(HttpSession session) {
+        String resultId = (String) session.getAttribute(RESULT_ID);
+        TeamFormationResult result = resultId != null ? resultStore.get(resultId) : null;
         
         if (result == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
         }
         
-        try {
-            ByteArrayInputStream in = ExcelGenerator.generateExcel(result);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.add("Content-Disposition", "attachment; filename=team_formation_results.xlsx");
-            
-            return ResponseEntity
-                    .ok()
-                    .headers(headers)
-                    .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
-                    .body(new InputStreamResource(in));
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Disposition", "attachment; filename=team_formation_results.xlsx");
+        
+        // The workbook is streamed straight to the servlet output stream rather than buffered
+        StreamingResponseBody body = out -> {
+            Timer.Sample sample = metrics.start();
+            try {
+                ExcelGenerator.writeExcel(result, out);
+            } finally {
+                metrics.exported(sample, "xlsx");
+            }
+        };
+        
+        return ResponseEntity
+                .ok()
+                .headers(headers)
+                .contentType(MediaType.parseMediaType("application/vnd.ms-excel"))
+                .body(body);
     }
-}
+}
\ No newline at end of file
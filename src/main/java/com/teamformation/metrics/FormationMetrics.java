@@ -0,0 +1,100 @@
+package com.teamformation.metrics;
+
+import com.teamformation.model.EventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timers and counters of roster parsing, team formation and result export, published through
+ * Actuator (e.g. /actuator/prometheus). Timers publish histograms, so percentiles can be aggregated
+ * across instances. Row counters are resolved once, as they are incremented for every roster row.
+ */
+@Component
+public class FormationMetrics {
+
+    /**
+     * Metrics recorded nowhere, for services created outside Spring such as in benchmarks
+     */
+    public static final FormationMetrics NOOP = new FormationMetrics(new CompositeMeterRegistry());
+
+    private final MeterRegistry registry;
+    private final Counter rowsAccepted;
+    private final Counter rowsRejected;
+
+    public FormationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.rowsAccepted = rowCounter("accepted");
+        this.rowsRejected = rowCounter("rejected");
+    }
+
+    /**
+     * Starts timing an operation; pass the sample to the matching method when it is done
+     */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * @param parser How the roster was read: "workbook", "xlsx-stream" or "delimited"
+     */
+    public void parsed(Timer.Sample sample, String parser, EventType eventType) {
+        sample.stop(timer("teamformation.parse", "Time to parse an uploaded roster",
+                "parser", parser, "eventType", String.valueOf(eventType)));
+    }
+
+    public void rowAccepted() {
+        rowsAccepted.increment();
+    }
+
+    /**
+     * Counts a data row skipped because it could not be converted to a student
+     */
+    public void rowRejected() {
+        rowsRejected.increment();
+    }
+
+    public void stageApplied(Timer.Sample sample, String stage, EventType eventType) {
+        sample.stop(timer("teamformation.formation.stage", "Time of one formation stage in one attempt",
+                "stage", stage, "eventType", String.valueOf(eventType)));
+    }
+
+    public void formed(Timer.Sample sample, EventType eventType, int assigned, int unassigned) {
+        String eventTag = String.valueOf(eventType);
+        sample.stop(timer("teamformation.formation", "Time to form teams from a parsed roster", "eventType", eventTag));
+        Counter.builder("teamformation.students")
+                .description("Students formed into teams or left unassigned")
+                .tags("outcome", "assigned", "eventType", eventTag)
+                .register(registry)
+                .increment(assigned);
+        Counter.builder("teamformation.students")
+                .description("Students formed into teams or left unassigned")
+                .tags("outcome", "unassigned", "eventType", eventTag)
+                .register(registry)
+                .increment(unassigned);
+    }
+
+    /**
+     * @param format Format the result was written in: "xlsx" or "json"
+     */
+    public void exported(Timer.Sample sample, String format) {
+        sample.stop(timer("teamformation.export", "Time to write a formation result", "format", format));
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter rowCounter(String outcome) {
+        return Counter.builder("teamformation.parse.rows")
+                .description("Roster data rows converted to students or skipped")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,35 @@
+package com.teamformation.model;
+
+public enum CourseType {
+    ADVANCED("Advanced"),
+    FULL_COURSE("Full Course"),
+    OTHER("Other");
+
+    private final String displayName;
+
+    CourseType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Course type of a course type value: one mentioning "full" is the full course,
+     * otherwise one mentioning "advanced" is the advanced course
+     */
+    public static CourseType of(String courseType) {
+        if (courseType == null) {
+            return OTHER;
+        }
+        String lower = courseType.toLowerCase();
+        if (lower.contains("full")) {
+            return FULL_COURSE;
+        }
+        if (lower.contains("advanced")) {
+            return ADVANCED;
+        }
+        return OTHER;
+    }
+}
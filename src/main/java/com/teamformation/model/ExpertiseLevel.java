@@ -0,0 +1,45 @@
+package com.teamformation.model;
+
+public enum ExpertiseLevel {
+    BEGINNER("Beginner"),
+    INTERMEDIATE("Intermediate"),
+    ADVANCED("Advanced");
+
+    private final String displayName;
+
+    ExpertiseLevel(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Level of an SQL/Python expertise value; values mentioning neither Advanced nor Intermediate,
+     * and missing values, count as Beginner
+     */
+    public static ExpertiseLevel of(String expertise) {
+        if (expertise == null) {
+            return BEGINNER;
+        }
+        if (expertise.contains("Advanced")) {
+            return ADVANCED;
+        } else if (expertise.contains("Intermediate")) {
+            return INTERMEDIATE;
+        }
+        return BEGINNER;
+    }
+
+    /**
+     * Level with the given display name (Advanced, Intermediate or Beginner)
+     */
+    public static ExpertiseLevel fromDisplayName(String displayName) {
+        for (ExpertiseLevel level : values()) {
+            if (level.displayName.equalsIgnoreCase(displayName)) {
+                return level;
+            }
+        }
+        throw new IllegalArgumentException("Unknown expertise level: " + displayName);
+    }
+}
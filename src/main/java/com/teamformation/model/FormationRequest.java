@@ -0,0 +1,27 @@
+package com.teamformation.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON body of a team formation request to the REST API
+ */
+@Data
+@NoArgsConstructor
+public class FormationRequest {
+
+    private EventType eventType;
+
+    /**
+     * Formation seed, null for a random one
+     */
+    private Long seed;
+
+    /**
+     * Roster with the same fields as the columns of an uploaded file
+     */
+    private List<Student> students = new ArrayList<>();
+}
@@ -0,0 +1,129 @@
+package com.teamformation.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-attribute member counts of a team, updated as members are added and removed.
+ * Counts are keyed by the members' typed profiles, so neither updates nor lookups by student do string processing.
+ */
+class MemberCounts {
+
+    private final int[] byTrack = new int[Track.values().length];
+    private final int[] byTimeZone = new int[TimeZoneGroup.values().length];
+    private final int[] byExpertise = new int[ExpertiseLevel.values().length];
+    private final int[] byCourseType = new int[CourseType.values().length];
+    private final Map<String, Integer> byBatch = new HashMap<>();
+    private final Map<String, Integer> byBatchAndTrack = new HashMap<>();
+    private final Map<String, Integer> byWorkingStatus = new HashMap<>();
+    private final Map<String, Integer> byHackathonParticipation = new HashMap<>();
+    private int working;
+    private int previousHackathon;
+    private int batchAndTrackDuplicates;
+
+    void clear() {
+        Arrays.fill(byTrack, 0);
+        Arrays.fill(byTimeZone, 0);
+        Arrays.fill(byExpertise, 0);
+        Arrays.fill(byCourseType, 0);
+        byBatch.clear();
+        byBatchAndTrack.clear();
+        byWorkingStatus.clear();
+        byHackathonParticipation.clear();
+        working = 0;
+        previousHackathon = 0;
+        batchAndTrackDuplicates = 0;
+    }
+
+    void add(Student student) {
+        update(student, 1);
+    }
+
+    void remove(Student student) {
+        update(student, -1);
+    }
+
+    private void update(Student student, int delta) {
+        StudentProfile profile = student.getProfile();
+
+        byTrack[profile.getTrack().ordinal()] += delta;
+        if (profile.getTimeZone() != null) {
+            byTimeZone[profile.getTimeZone().ordinal()] += delta;
+        }
+        byExpertise[profile.getExpertise().ordinal()] += delta;
+        byCourseType[profile.getCourseType().ordinal()] += delta;
+        if (profile.isWorking()) {
+            working += delta;
+        }
+        if (profile.isPreviousHackathon()) {
+            previousHackathon += delta;
+        }
+        if (profile.getWorkingStatusKey() != null) {
+            adjust(byWorkingStatus, profile.getWorkingStatusKey(), delta);
+        }
+        if (profile.getHackathonParticipationKey() != null) {
+            adjust(byHackathonParticipation, profile.getHackathonParticipationKey(), delta);
+        }
+        if (profile.getBatchKey() != null) {
+            adjust(byBatch, profile.getBatchKey(), delta);
+        }
+        String key = profile.getBatchTrackKey();
+        if (key != null) {
+            int before = byBatchAndTrack.getOrDefault(key, 0);
+            // Every member beyond the first with the same batch and track is a duplicate
+            if (delta > 0 ? before >= 1 : before >= 2) {
+                batchAndTrackDuplicates += delta;
+            }
+            adjust(byBatchAndTrack, key, delta);
+        }
+    }
+
+    private static void adjust(Map<String, Integer> counts, String key, int delta) {
+        counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    int track(Track track) {
+        return byTrack[track.ordinal()];
+    }
+
+    int timeZone(TimeZoneGroup timeZoneGroup) {
+        return byTimeZone[timeZoneGroup.ordinal()];
+    }
+
+    int expertise(ExpertiseLevel level) {
+        return byExpertise[level.ordinal()];
+    }
+
+    int courseType(CourseType courseType) {
+        return byCourseType[courseType.ordinal()];
+    }
+
+    int batch(String batchKey) {
+        return byBatch.getOrDefault(batchKey, 0);
+    }
+
+    int batchAndTrackCount(String batchTrackKey) {
+        return byBatchAndTrack.getOrDefault(batchTrackKey, 0);
+    }
+
+    int batchAndTrackDuplicates() {
+        return batchAndTrackDuplicates;
+    }
+
+    int workingStatus(String status) {
+        return status != null ? byWorkingStatus.getOrDefault(StudentProfile.answerKey(status), 0) : 0;
+    }
+
+    int hackathonParticipation(String status) {
+        return status != null ? byHackathonParticipation.getOrDefault(StudentProfile.answerKey(status), 0) : 0;
+    }
+
+    int working() {
+        return working;
+    }
+
+    int previousHackathon() {
+        return previousHackathon;
+    }
+}
@@ -0,0 +1,112 @@
+package com.teamformation.model;
+
+import lombok.Getter;
+
+import java.io.Serializable;
+
+/**
+ * A problem found while reading an uploaded roster, with its location for reporting
+ */
+@Getter
+public final class RosterIssue implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Kind {
+        /**
+         * The file has no header row
+         */
+        MISSING_HEADER,
+        /**
+         * A header cell holds a number or a formula instead of text
+         */
+        HEADER_FORMULA,
+        /**
+         * Columns the event type needs are not in the header
+         */
+        MISSING_COLUMNS,
+        /**
+         * A data cell could not be read; its row is skipped unless the column is optional
+         */
+        UNREADABLE_CELL,
+        /**
+         * A data row could not be converted; it is skipped
+         */
+        INVALID_ROW,
+        /**
+         * A data row repeats the email of an earlier row; both rows count as the same student
+         */
+        DUPLICATE_EMAIL,
+        /**
+         * A roster update removes an email no student of the formation has
+         */
+        UNKNOWN_STUDENT
+    }
+
+    private final Kind kind;
+    private final String message;
+
+    /**
+     * Worksheet name, null for CSV/TSV files and file-level issues
+     */
+    private final String sheetName;
+
+    /**
+     * Cell reference such as "C12", null when the issue is not about a single cell
+     */
+    private final String cellReference;
+
+    /**
+     * Formula of the cell, null if it has none
+     */
+    private final String formula;
+
+    // 0-based positions, -1 when not applicable
+    private final int rowIndex;
+    private final int columnIndex;
+
+    private RosterIssue(Kind kind, String message, String sheetName, String cellReference, String formula,
+                        int rowIndex, int columnIndex) {
+        this.kind = kind;
+        this.message = message;
+        this.sheetName = sheetName;
+        this.cellReference = cellReference;
+        this.formula = formula;
+        this.rowIndex = rowIndex;
+        this.columnIndex = columnIndex;
+    }
+
+    public static RosterIssue file(Kind kind, String message) {
+        return new RosterIssue(kind, message, null, null, null, -1, -1);
+    }
+
+    public static RosterIssue cell(Kind kind, String message, String sheetName, String cellReference, String formula,
+                                   int rowIndex, int columnIndex) {
+        return new RosterIssue(kind, message, sheetName, cellReference, formula, rowIndex, columnIndex);
+    }
+
+    public static RosterIssue row(Kind kind, String message, int rowIndex) {
+        return new RosterIssue(kind, message, null, null, null, rowIndex, -1);
+    }
+
+    /**
+     * Whether the issue prevents reading the roster at all, rather than skipping a row
+     */
+    public boolean isFatal() {
+        return kind == Kind.MISSING_HEADER || kind == Kind.HEADER_FORMULA || kind == Kind.MISSING_COLUMNS;
+    }
+
+    /**
+     * Where the issue is, e.g. "Sheet1!C12", "Row 12" or "File"
+     */
+    public String getLocation() {
+        if (cellReference != null) {
+            return sheetName != null ? sheetName + "!" + cellReference : cellReference;
+        }
+        return rowIndex >= 0 ? "Row " + (rowIndex + 1) : "File";
+    }
+
+    @Override
+    public String toString() {
+        return getLocation() + ": " + message + (formula != null && !formula.isEmpty() ? " (formula: " + formula + ")" : "");
+    }
+}
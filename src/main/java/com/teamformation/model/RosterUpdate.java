@@ -0,0 +1,20 @@
+package com.teamformation.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Students joining and leaving an already formed event, as posted to the JSON API
+ */
+@Data
+public class RosterUpdate {
+
+    private List<Student> added = new ArrayList<>();
+
+    /**
+     * Emails of the students leaving
+     */
+    private List<String> removed = new ArrayList<>();
+}
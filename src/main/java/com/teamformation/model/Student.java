@@ -1,15 +1,21 @@
 package com.teamformation.model;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
 
 @Data
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
-public class Student {
+public class Student implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String timestamp;
     private String email;
     private String name;
@@ -29,4 +35,80 @@ public class Student {
     
     // Additional fields for SQL hackathon
     private String sqlExpertiseLevel;
+
+    @Builder
+    public Student(String timestamp, String email, String name, String track, String batch, String courseType,
+                   String workingStatus, String timeZone, String dsAlgoCompletion, String previousHackathon,
+                   String previousHackathonParticipation, String apiBootcampCompletion, String sqlExpertiseLevel) {
+        this.timestamp = timestamp;
+        this.email = email;
+        this.name = name;
+        this.track = track;
+        this.batch = batch;
+        this.courseType = courseType;
+        this.workingStatus = workingStatus;
+        this.timeZone = timeZone;
+        this.dsAlgoCompletion = dsAlgoCompletion;
+        this.previousHackathon = previousHackathon;
+        this.previousHackathonParticipation = previousHackathonParticipation;
+        this.apiBootcampCompletion = apiBootcampCompletion;
+        this.sqlExpertiseLevel = sqlExpertiseLevel;
+    }
+
+    // Typed attributes for team formation, derived on first use and reset when a field they come from changes
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient StudentProfile profile;
+
+    public StudentProfile getProfile() {
+        StudentProfile current = profile;
+        if (current == null) {
+            // Racing threads derive equal profiles, so no locking is needed
+            current = StudentProfile.of(this);
+            profile = current;
+        }
+        return current;
+    }
+
+    public void setTrack(String track) {
+        this.track = track;
+        profile = null;
+    }
+
+    public void setBatch(String batch) {
+        this.batch = batch;
+        profile = null;
+    }
+
+    public void setCourseType(String courseType) {
+        this.courseType = courseType;
+        profile = null;
+    }
+
+    public void setWorkingStatus(String workingStatus) {
+        this.workingStatus = workingStatus;
+        profile = null;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+        profile = null;
+    }
+
+    public void setPreviousHackathon(String previousHackathon) {
+        this.previousHackathon = previousHackathon;
+        profile = null;
+    }
+
+    public void setPreviousHackathonParticipation(String previousHackathonParticipation) {
+        this.previousHackathonParticipation = previousHackathonParticipation;
+        profile = null;
+    }
+
+    public void setSqlExpertiseLevel(String sqlExpertiseLevel) {
+        this.sqlExpertiseLevel = sqlExpertiseLevel;
+        profile = null;
+    }
 }
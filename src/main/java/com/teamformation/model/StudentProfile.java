@@ -0,0 +1,71 @@
+package com.teamformation.model;
+
+import lombok.Getter;
+
+/**
+ * Typed form of a student's formation attributes, derived once from the free-text fields
+ * so that team formation compares enums and canonical keys instead of rescanning strings.
+ * The student's original strings remain the source for display and export.
+ */
+@Getter
+public final class StudentProfile {
+
+    private final Track track;
+    private final CourseType courseType;
+    private final ExpertiseLevel expertise;
+
+    /**
+     * Null if the student gave no time zone
+     */
+    private final TimeZoneGroup timeZone;
+
+    // Yes/no answers: true if the answer contains "yes"
+    private final boolean working;
+    private final boolean previousHackathon;
+
+    // Lower-cased working status and previous hackathon participation answers, null if not given
+    private final String workingStatusKey;
+    private final String hackathonParticipationKey;
+
+    /**
+     * Trimmed and lower-cased batch, or null if the student has none
+     */
+    private final String batchKey;
+
+    /**
+     * Key of batch and track together, or null if either is missing
+     */
+    private final String batchTrackKey;
+
+    private StudentProfile(Student student) {
+        track = Track.of(student.getTrack());
+        courseType = CourseType.of(student.getCourseType());
+        expertise = ExpertiseLevel.of(student.getSqlExpertiseLevel());
+        timeZone = TimeZoneGroup.of(student.getTimeZone());
+        working = isYes(student.getWorkingStatus());
+        previousHackathon = isYes(student.getPreviousHackathon());
+        workingStatusKey = answerKey(student.getWorkingStatus());
+        hackathonParticipationKey = answerKey(student.getPreviousHackathonParticipation());
+
+        String batch = student.getBatch();
+        batchKey = batch != null ? batch.trim().toLowerCase() : null;
+        batchTrackKey = batchKey != null && student.getTrack() != null
+                ? (batchKey + '\u0000' + student.getTrack().trim().toLowerCase())
+                : null;
+    }
+
+    public static StudentProfile of(Student student) {
+        return new StudentProfile(student);
+    }
+
+    /**
+     * Key of a free-text answer; answers that differ only in letter case share a key
+     */
+    static String answerKey(String answer) {
+        return answer != null ? answer.toLowerCase() : null;
+    }
+
+    private static boolean isYes(String answer) {
+        return answer != null && answer.toLowerCase().contains("yes");
+    }
+}
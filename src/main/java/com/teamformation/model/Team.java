@@ -1,37 +1,96 @@
 package com.teamformation.model;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
+import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Data
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
-public class Team {
+public class Team implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String name;
-    @Builder.Default
     private List<Student> members = new ArrayList<>();
     private String statistics;
-    
+
+    // Attribute counts kept up to date by addMember/removeMember, so lookups don't rescan the members
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final transient MemberCounts counts = new MemberCounts();
+
+    /**
+     * @param members Initial members, copied; null for none
+     */
+    @Builder
+    public Team(String name, List<Student> members, String statistics) {
+        this.name = name;
+        this.statistics = statistics;
+        setMembers(members);
+    }
+
+    /**
+     * The members, read-only; change them with {@link #addMember} and {@link #removeMember} so the
+     * attribute counts stay in step
+     */
+    public List<Student> getMembers() {
+        return Collections.unmodifiableList(members);
+    }
+
+    /**
+     * Replaces the members with a copy of the given ones and counts them again
+     */
+    public void setMembers(List<Student> members) {
+        this.members = members != null ? new ArrayList<>(members) : new ArrayList<>();
+        counts.clear();
+        this.members.forEach(counts::add);
+    }
+
     public void addMember(Student student) {
         members.add(student);
+        counts.add(student);
     }
-    
+
+    /**
+     * Removes the student from the team
+     * @return true if the student was a member
+     */
+    public boolean removeMember(Student student) {
+        if (!members.remove(student)) {
+            return false;
+        }
+        counts.remove(student);
+        return true;
+    }
+
+    /**
+     * The counts are transient, so a deserialized team is rebuilt to get a fresh set
+     */
+    private Object readResolve() {
+        return new Team(name, members, statistics);
+    }
+
     public int getSize() {
         return members.size();
     }
     
     public int countByTrack(String track) {
-        return (int) members.stream()
-                .filter(s -> track.equalsIgnoreCase(s.getTrack()))
-                .count();
+        return counts.track(Track.of(track));
+    }
+
+    public int countByTrack(Track track) {
+        return counts.track(track);
     }
     
     public int getDaCount() {
@@ -46,84 +105,111 @@ public class Team {
         return countByTrack("DVLPR");
     }
     
+    /**
+     * Number of members whose working status is the given one, ignoring case
+     */
     public int countByWorkingStatus(String status) {
-        return (int) members.stream()
-                .filter(s -> status.equalsIgnoreCase(s.getWorkingStatus()))
-                .count();
+        return counts.workingStatus(status);
     }
-    
+
+    /**
+     * Number of members whose previous hackathon participation is the given answer, ignoring case
+     */
     public int countByPreviousHackathon(String status) {
-        return (int) members.stream()
-                .filter(s -> status.equalsIgnoreCase(s.getPreviousHackathonParticipation()))
-                .count();
+        return counts.hackathonParticipation(status);
     }
-    
+
     /**
-     * Checks if the team already has a student from the specified batch number with the same track
-     * @param batchNumber Batch number to check 
-     * @param track The track to check for this batch
-     * @return true if any student in the team has this batch number and track
+     * Number of members whose working status contains "yes"
      */
-    public boolean hasBatchNumberWithTrack(String batchNumber, String track) {
-        if (batchNumber == null || batchNumber.trim().isEmpty() || track == null) {
-            return false;
-        }
-        
-        return members.stream()
-                .filter(s -> s.getBatch() != null && s.getTrack() != null)
-                .anyMatch(s -> s.getBatch().equalsIgnoreCase(batchNumber.trim()) && 
-                         s.getTrack().equalsIgnoreCase(track.trim()));
+    public int getWorkingCount() {
+        return counts.working();
     }
-    
+
     /**
-     * Checks if the team already has a student from the specified batch number
-     * @param batchNumber Batch number to check 
-     * @return true if any student in the team has this batch number
+     * Number of members whose previous hackathon answer contains "yes"
      */
-    public boolean hasBatchNumber(String batchNumber) {
-        if (batchNumber == null || batchNumber.trim().isEmpty()) {
-            return false;
-        }
-        
-        return members.stream()
-                .filter(s -> s.getBatch() != null)
-                .anyMatch(s -> s.getBatch().equalsIgnoreCase(batchNumber.trim()));
+    public int getPreviousHackathonCount() {
+        return counts.previousHackathon();
     }
-    
-    public int countAdvancedCourseParticipants() {
-        int count = 0;
-        for (Student student : members) {
-            String courseType = student.getCourseType();
-            if (courseType != null && courseType.equalsIgnoreCase("Advanced")) {
-                count++;
-                // For debugging
-                System.out.println("Advanced student in team " + name + ": " + student.getName() + " - " + courseType);
+
+    /**
+     * Number of members in the given time zone group (EST, CST, PST, GMT, IST or OTHER); members without a time zone are not counted
+     */
+    public int countByTimeZone(String timeZoneGroup) {
+        return counts.timeZone(TimeZoneGroup.valueOf(timeZoneGroup));
+    }
+
+    public int countByTimeZone(TimeZoneGroup timeZoneGroup) {
+        return counts.timeZone(timeZoneGroup);
+    }
+
+    /**
+     * Member counts per time zone group, for groups with members
+     */
+    public Map<String, Integer> getTimeZoneCounts() {
+        Map<String, Integer> timeZoneCounts = new LinkedHashMap<>();
+        for (TimeZoneGroup group : TimeZoneGroup.values()) {
+            int count = counts.timeZone(group);
+            if (count > 0) {
+                timeZoneCounts.put(group.name(), count);
             }
         }
-        return count;
+        return timeZoneCounts;
+    }
+
+    /**
+     * Number of members with the given SQL/Python expertise level (Advanced, Intermediate or Beginner);
+     * members without a level count as Beginner
+     */
+    public int countByExpertise(String level) {
+        return counts.expertise(ExpertiseLevel.fromDisplayName(level));
+    }
+
+    public int countByExpertise(ExpertiseLevel level) {
+        return counts.expertise(level);
     }
     
-    public int countFullCourseParticipants() {
-        int count = 0;
-        for (Student student : members) {
-            String courseType = student.getCourseType();
-            if (courseType != null && courseType.equalsIgnoreCase("Full Course")) {
-                count++;
-                // For debugging
-                System.out.println("Full Course student in team " + name + ": " + student.getName() + " - " + courseType);
-            }
-        }
-        return count;
+    /**
+     * Checks if the team already has a student from the student's batch with the same track
+     * @param student Student whose batch and track to check
+     * @return true if any member has this batch and track; false if the student has no batch or track
+     */
+    public boolean hasBatchAndTrackOf(Student student) {
+        return countSameBatchAndTrack(student) > 0;
+    }
+
+    /**
+     * Number of members with the same batch and track as the student, including the student if a member
+     */
+    public int countSameBatchAndTrack(Student student) {
+        String key = student.getProfile().getBatchTrackKey();
+        return key != null ? counts.batchAndTrackCount(key) : 0;
+    }
+
+    /**
+     * Checks if the team already has a student from the student's batch
+     * @param student Student whose batch to check
+     * @return true if any member has this batch; false if the student has no batch
+     */
+    public boolean hasBatchOf(Student student) {
+        String key = student.getProfile().getBatchKey();
+        return key != null && counts.batch(key) > 0;
+    }
+    
+    /**
+     * Number of members who share both batch and track with another member of the team, not counting the first of each
+     */
+    public int getBatchConflictCount() {
+        return counts.batchAndTrackDuplicates();
     }
     
-    public List<String> getMemberNames() {
-        return members.stream()
-                .map(Student::getName)
-                .collect(Collectors.toList());
+    public int countAdvancedCourseParticipants() {
+        return counts.courseType(CourseType.ADVANCED);
     }
     
-    public String getMemberNamesAsString() {
-        return String.join(", ", getMemberNames());
+    public int countFullCourseParticipants() {
+        return counts.courseType(CourseType.FULL_COURSE);
     }
     
     public String getTrackDistribution() {
@@ -132,12 +218,4 @@ public class Team {
         int dvlprCount = getDvlprCount();
         return String.format("SDET: %d, DA: %d, DVLPR: %d", sdetCount, daCount, dvlprCount);
     }
-    
-    // Get members sorted by track and name for better display
-    public List<Student> getSortedStudents() {
-        return members.stream()
-                .sorted(Comparator.comparing(Student::getTrack)
-                        .thenComparing(Student::getName))
-                .collect(Collectors.toList());
-    }
-}
\ No newline at end of file
+}
@@ -4,22 +4,34 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class TeamFormationResult {
+public class TeamFormationResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private List<Team> teams;
     private List<Student> unassignedStudents;
     private EventType eventType;
     private String summary;
     private int totalStudents;
     private int assignedStudents;
+
+    // Balance objective of the selected formation (lower is better) and how many attempts it was chosen from
+    private double balanceScore;
+    private int formationAttempts;
+
+    // Seed the formation ran with; forming the same roster with it again gives the same teams
+    private long seed;
     
     // Special fields for SQL Bootcamp
     private List<Team> advancedCourseTeams;
@@ -62,8 +74,7 @@ public class TeamFormationResult {
             totalFullCourseStudents += team.countFullCourseParticipants();
         }
         
-        System.out.println("Total student count check - Advanced: " + totalAdvancedStudents + 
-                          ", Full Course: " + totalFullCourseStudents);
+        log.debug("Total student count check - Advanced: {}, Full Course: {}", totalAdvancedStudents, totalFullCourseStudents);
         
         // Classify teams based only on their name, exactly as they're created
         advancedCourseTeams = new ArrayList<>();
@@ -96,9 +107,7 @@ public class TeamFormationResult {
             fullCourseStudentsCount += team.countFullCourseParticipants();
         }
         
-        System.out.println("Classified teams: Advanced teams: " + advancedCourseTeams.size() + 
-                ", Advanced students: " + advancedCourseStudentsCount + 
-                ", Full teams: " + fullCourseTeams.size() + 
-                ", Full students: " + fullCourseStudentsCount);
+        log.debug("Classified teams: Advanced teams: {}, Advanced students: {}, Full teams: {}, Full students: {}",
+                advancedCourseTeams.size(), advancedCourseStudentsCount, fullCourseTeams.size(), fullCourseStudentsCount);
     }
 }
\ No newline at end of file
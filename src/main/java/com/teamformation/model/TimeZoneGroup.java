@@ -0,0 +1,115 @@
+package com.teamformation.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time zone group of a student, in the order of TimeZones.GROUPS.
+ * Free-text time zones are classified by an explicit UTC/GMT offset if they contain one, otherwise by
+ * the first zone abbreviation, name or city they mention; both ways put a zone in the same group.
+ * Rosters repeat a handful of spellings, so the most recently used results are cached per raw value.
+ */
+public enum TimeZoneGroup {
+    EST, CST, PST, GMT, IST, OTHER;
+
+    private static final TimeZoneGroup[] VALUES = values();
+
+    // Distinct raw values remembered, least recently used dropped first
+    private static final int CACHE_LIMIT = 1024;
+
+    // "GMT-5", "UTC +05:30", "gmt+1"
+    private static final Pattern OFFSET = Pattern.compile("(?:UTC|GMT)\\s*([+\\-\\u2212])\\s*(\\d{1,2})(?::?(\\d{2}))?");
+
+    // One alternative per group, tried together in a single pass; the leftmost mention wins.
+    // Central European time is listed first so it is not taken for US Central; like its offsets,
+    // it belongs to GMT.
+    private static final TimeZoneGroup[] KEYWORD_GROUPS = {GMT, EST, CST, PST, GMT, IST};
+    private static final Pattern KEYWORDS = Pattern.compile("\\b(?:" +
+            "(CET|CEST|CENTRAL EUROPE\\w*)|" +
+            "(EST|EDT|ET|EASTERN|NEW[ _]YORK|TORONTO)|" +
+            "(CST|CDT|CT|CENTRAL|CHICAGO)|" +
+            "(PST|PDT|PT|PACIFIC|LOS[ _]ANGELES|MST|MDT|MT|MOUNTAIN|DENVER|PHOENIX)|" +
+            "(GMT|UTC|BST|WET|LONDON|GREENWICH)|" +
+            "(IST|INDIA\\w*|KOLKATA|CALCUTTA)" +
+            ")\\b");
+
+    private static final Map<String, TimeZoneGroup> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, TimeZoneGroup>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TimeZoneGroup> eldest) {
+                    return size() > CACHE_LIMIT;
+                }
+            });
+
+    /**
+     * Group of a free-text time zone, or null if the student gave none
+     */
+    public static TimeZoneGroup of(String timeZone) {
+        if (timeZone == null) {
+            return null;
+        }
+
+        TimeZoneGroup group = CACHE.get(timeZone);
+        if (group == null) {
+            group = classify(timeZone);
+            CACHE.put(timeZone, group);
+        }
+        return group;
+    }
+
+    /**
+     * Group at the given index of TimeZones.GROUPS
+     */
+    public static TimeZoneGroup at(int index) {
+        return VALUES[index];
+    }
+
+    private static TimeZoneGroup classify(String timeZone) {
+        String upperTimeZone = timeZone.toUpperCase();
+
+        Matcher offset = OFFSET.matcher(upperTimeZone);
+        if (offset.find()) {
+            int minutes = Integer.parseInt(offset.group(2)) * 60 +
+                    (offset.group(3) != null ? Integer.parseInt(offset.group(3)) : 0);
+            return fromOffset(offset.group(1).equals("+") ? minutes : -minutes);
+        }
+
+        Matcher keyword = KEYWORDS.matcher(upperTimeZone);
+        if (keyword.find()) {
+            for (int g = 1; g <= KEYWORD_GROUPS.length; g++) {
+                if (keyword.group(g) != null) {
+                    return KEYWORD_GROUPS[g - 1];
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    /**
+     * Group of a UTC offset in minutes; daylight saving offsets count towards the zone they belong to,
+     * and Central European time, standard or summer, towards GMT
+     */
+    private static TimeZoneGroup fromOffset(int minutes) {
+        switch (minutes) {
+            case -4 * 60:
+            case -5 * 60:
+                return EST;
+            case -6 * 60:
+                return CST;
+            case -7 * 60:
+            case -8 * 60:
+                return PST;
+            case 0:
+            case 60:
+            case 2 * 60:
+                return GMT;
+            case 5 * 60 + 30:
+                return IST;
+            default:
+                return OTHER;
+        }
+    }
+}
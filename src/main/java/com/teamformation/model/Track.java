@@ -0,0 +1,29 @@
+package com.teamformation.model;
+
+/**
+ * Bootcamp track of a student; tracks other than the known ones fall into OTHER
+ */
+public enum Track {
+    SDET, DA, DVLPR, SMPO, OTHER;
+
+    /**
+     * Track of a standardized track value such as "SDET" (any case), or OTHER
+     */
+    public static Track of(String track) {
+        if (track == null) {
+            return OTHER;
+        }
+        switch (track.trim().toUpperCase()) {
+            case "SDET":
+                return SDET;
+            case "DA":
+                return DA;
+            case "DVLPR":
+                return DVLPR;
+            case "SMPO":
+                return SMPO;
+            default:
+                return OTHER;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.teamformation.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Issues found while reading a roster. Every issue is counted, but only the first
+ * {@code maxIssues} are kept, so a file with thousands of bad rows stays cheap to report.
+ * The first fatal issue is always kept, even when it comes after the kept ones.
+ */
+public class ValidationReport implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_MAX_ISSUES = 100;
+
+    private final int maxIssues;
+    private final List<RosterIssue> issues = new ArrayList<>();
+    private int issueCount;
+    private RosterIssue firstFatal;
+
+    public ValidationReport() {
+        this(DEFAULT_MAX_ISSUES);
+    }
+
+    public ValidationReport(int maxIssues) {
+        this.maxIssues = maxIssues;
+    }
+
+    public void add(RosterIssue issue) {
+        issueCount++;
+        if (firstFatal == null && issue.isFatal()) {
+            firstFatal = issue;
+        }
+        if (issues.size() < maxIssues) {
+            issues.add(issue);
+        }
+    }
+
+    /**
+     * Counts issues that were found but not kept, e.g. those a report on part of the roster dropped
+     */
+    public void addOmitted(int count) {
+        issueCount += count;
+    }
+
+    /**
+     * Counts the issues another report found but did not keep, and takes its first fatal issue
+     * if this report has none, e.g. after its kept issues were added one at a time
+     */
+    public void addOmitted(ValidationReport other) {
+        addOmitted(other.issueCount - other.issues.size());
+        if (firstFatal == null) {
+            firstFatal = other.firstFatal;
+        }
+    }
+
+    /**
+     * Adds the issues of another report after those of this one
+     */
+    public void addAll(ValidationReport other) {
+        for (RosterIssue issue : other.getIssues()) {
+            add(issue);
+        }
+        addOmitted(other);
+    }
+
+    public int getMaxIssues() {
+        return maxIssues;
+    }
+
+    /**
+     * The kept issues, in the order they were found
+     */
+    public List<RosterIssue> getIssues() {
+        return Collections.unmodifiableList(issues);
+    }
+
+    /**
+     * All issues found, including those not kept
+     */
+    public int getIssueCount() {
+        return issueCount;
+    }
+
+    public boolean hasIssues() {
+        return issueCount > 0;
+    }
+
+    /**
+     * Whether an issue prevented reading the roster at all
+     */
+    public boolean isFatal() {
+        return firstFatal != null;
+    }
+
+    /**
+     * Whether more issues were found than kept
+     */
+    public boolean isTruncated() {
+        return issueCount > issues.size();
+    }
+
+    /**
+     * The first issue that prevented reading the roster, or null
+     */
+    public RosterIssue firstFatalIssue() {
+        return firstFatal;
+    }
+}
@@ -0,0 +1,77 @@
+package com.teamformation.service;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.TeamFormationResult;
+import com.teamformation.model.ValidationReport;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of forming teams for several events from one upload: one entry per file of a zip or
+ * sheet of a workbook, in upload order
+ */
+@Getter
+public class BatchFormation {
+
+    private final List<Event> events;
+
+    /**
+     * Wall-clock time of the whole batch, from the upload being read to the last event formed
+     */
+    private final long elapsedMillis;
+
+    public BatchFormation(List<Event> events, long elapsedMillis) {
+        this.events = events;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Whether teams were formed for at least one event
+     */
+    public boolean hasResults() {
+        return events.stream().anyMatch(event -> event.getResult() != null);
+    }
+
+    /**
+     * One file or sheet of the upload
+     */
+    @Getter
+    public static class Event {
+
+        /**
+         * File name within the zip, or sheet name
+         */
+        private final String name;
+
+        /**
+         * Event the name maps to, null if it maps to none
+         */
+        private final EventType eventType;
+
+        private final ValidationReport report;
+
+        // Set once the event has been formed, or failed
+        private String resultId;
+        private TeamFormationResult result;
+        private String errorMessage;
+        private long elapsedMillis;
+
+        Event(String name, EventType eventType) {
+            this.name = name;
+            this.eventType = eventType;
+            this.report = new ValidationReport();
+        }
+
+        void complete(String resultId, TeamFormationResult result, long elapsedMillis) {
+            this.resultId = resultId;
+            this.result = result;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        void fail(String errorMessage, long elapsedMillis) {
+            this.errorMessage = errorMessage;
+            this.elapsedMillis = elapsedMillis;
+        }
+    }
+}
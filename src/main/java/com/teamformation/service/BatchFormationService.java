@@ -0,0 +1,362 @@
+package com.teamformation.service;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.Student;
+import com.teamformation.model.TeamFormationResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Forms teams for several events from one upload: a zip of rosters or a workbook with one sheet per event.
+ * Each file or sheet is matched to an event by its name, then parsed and formed on a bounded pool of its
+ * own, so a batch takes about as long as its largest event rather than the sum of all of them.
+ * A batch hands the pool no more events than it has threads, or queue places if fewer, and submits the
+ * next one as each finishes, so a single upload never fills the pool's queue however many rosters it holds.
+ */
+@Slf4j
+@Service
+public class BatchFormationService {
+
+    private final ExcelService excelService;
+    private final TeamFormationService teamFormationService;
+    private final ResultStore resultStore;
+    private final ThreadPoolExecutor executor;
+    // Events of one batch on the pool at a time; never more than the queue holds, since a worker
+    // that has just finished an event may not have taken the next one from the queue yet
+    private final int partsInFlight;
+    private final long maxExtractedBytes;
+    private final int maxEntries;
+
+    public BatchFormationService(ExcelService excelService,
+                                 TeamFormationService teamFormationService,
+                                 ResultStore resultStore,
+                                 @Value("${teamformation.batch.threads:4}") int threads,
+                                 @Value("${teamformation.batch.queue-capacity:32}") int queueCapacity,
+                                 @Value("${teamformation.batch.max-extracted-mb:512}") long maxExtractedMb,
+                                 @Value("${teamformation.batch.max-entries:256}") int maxEntries) {
+        this.excelService = excelService;
+        this.teamFormationService = teamFormationService;
+        this.resultStore = resultStore;
+        this.partsInFlight = Math.min(threads, queueCapacity);
+        this.maxExtractedBytes = maxExtractedMb * 1024 * 1024;
+        this.maxEntries = maxEntries;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "batch-formation-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Forms teams for every event in the upload and stores each result in the result store.
+     * Files and sheets whose name matches no event, or that cannot be read, are reported in the batch
+     * without stopping the others.
+     *
+     * @param filename Name of the upload: a .zip of rosters, or an .xlsx or .xls workbook
+     * @param seed Formation seed used for every event, null for random ones
+     * @throws RejectedExecutionException if other batches keep the pool too busy to take this one's events
+     */
+    public BatchFormation form(InputStream content, String filename, Long seed) throws Exception {
+        long start = System.nanoTime();
+        boolean zip = filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".zip");
+        RosterFormat workbookFormat = RosterFormat.of(filename);
+        if (!zip && workbookFormat != RosterFormat.XLSX && workbookFormat != RosterFormat.XLS) {
+            throw new IllegalArgumentException("A batch must be a .zip of rosters or an Excel workbook (.xlsx, .xls)");
+        }
+
+        Path directory = Files.createTempDirectory("batch-");
+        try {
+            List<BatchFormation.Event> events = new ArrayList<>();
+            List<Part> parts = new ArrayList<>();
+            if (zip) {
+                extract(content, directory, events, parts);
+            } else {
+                Path workbook = directory.resolve("upload" + workbookFormat.getExtension());
+                Files.copy(content, workbook);
+                for (String sheetName : excelService.sheetNames(workbook, workbookFormat)) {
+                    BatchFormation.Event event = new BatchFormation.Event(sheetName, eventTypeOf(sheetName));
+                    events.add(event);
+                    if (event.getEventType() != null) {
+                        parts.add(new Part(event, workbook, workbookFormat, sheetName));
+                    }
+                }
+            }
+            for (BatchFormation.Event event : events) {
+                if (event.getEventType() == null && event.getErrorMessage() == null) {
+                    event.fail("The name matches no event type", 0);
+                }
+            }
+            if (parts.isEmpty()) {
+                throw new IllegalArgumentException("No file or sheet name in the upload matches an event type");
+            }
+
+            formParts(parts, seed);
+
+            BatchFormation batch = new BatchFormation(events,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            log.info("Formed {} of {} events from {} in {} ms", parts.stream().filter(part -> part.event.getResult() != null).count(),
+                    events.size(), filename, batch.getElapsedMillis());
+            return batch;
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Forms the parts on the pool, no more than {@link #partsInFlight} at a time. If the batch fails, parts not yet
+     * started are withdrawn and the running ones interrupted, and this returns only once none of them
+     * is running, so the extracted files can be deleted.
+     */
+    private void formParts(List<Part> parts, Long seed) throws InterruptedException {
+        Semaphore running = new Semaphore(partsInFlight);
+        List<PartTask> tasks = new ArrayList<>(parts.size());
+        boolean formed = false;
+        try {
+            for (Part part : parts) {
+                running.acquire();
+                PartTask task = new PartTask(() -> formPart(part, seed), running);
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    running.release();
+                    throw e;
+                }
+                tasks.add(task);
+            }
+            for (PartTask task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    // formPart records its own failures; anything else is a bug worth surfacing
+                    throw new IllegalStateException("Batch formation failed", e.getCause());
+                }
+            }
+            formed = true;
+        } finally {
+            if (!formed) {
+                for (PartTask task : tasks) {
+                    if (executor.remove(task)) {
+                        running.release();  // Withdrawn before it started, so it never releases its permit
+                    } else {
+                        task.cancel(true);
+                    }
+                }
+                running.acquireUninterruptibly(partsInFlight);
+            }
+        }
+    }
+
+    /**
+     * Event whose name, or display name, the file or sheet name starts with, ignoring case, spaces and
+     * punctuation; the longest such name wins, so "Phase 2 API Hackathon - cohort B" maps to
+     * PHASE2_API_HACKATHON. A shorter name that begins exactly one event's name, like "selenium", maps
+     * to that event.
+     *
+     * @return The event, or null if none or several match
+     */
+    static EventType eventTypeOf(String name) {
+        String base = normalize(name.replaceFirst("\\.[^.]*$", ""));
+        if (base.isEmpty()) {
+            return null;
+        }
+        EventType best = null;
+        int bestLength = 0;
+        EventType abbreviated = null;
+        int abbreviations = 0;
+        for (EventType eventType : EventType.values()) {
+            for (String candidate : new String[] {normalize(eventType.name()), normalize(eventType.getDisplayName())}) {
+                if (base.startsWith(candidate) && candidate.length() > bestLength) {
+                    best = eventType;
+                    bestLength = candidate.length();
+                }
+            }
+            if (normalize(eventType.getDisplayName()).startsWith(base)) {
+                abbreviated = eventType;
+                abbreviations++;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        return abbreviations == 1 ? abbreviated : null;
+    }
+
+    private static String normalize(String name) {
+        return name.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+    }
+
+    /**
+     * Extracts the rosters of the zip into the directory, one file per entry. Entries that are not rosters,
+     * like folders and macOS metadata, are skipped, but count towards the limit on entries.
+     */
+    private void extract(InputStream content, Path directory, List<BatchFormation.Event> events, List<Part> parts)
+            throws IOException {
+        long extracted = 0;
+        int entries = 0;
+        try (ZipInputStream zip = new ZipInputStream(content)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (++entries > maxEntries) {
+                    throw new IOException("The archive has more than " + maxEntries + " entries");
+                }
+                String entryName = entry.getName();
+                String name = entryName.substring(entryName.lastIndexOf('/') + 1);
+                if (entry.isDirectory() || entryName.startsWith("__MACOSX/") || name.isEmpty() || name.startsWith(".")) {
+                    continue;
+                }
+
+                BatchFormation.Event event = new BatchFormation.Event(name, eventTypeOf(name));
+                events.add(event);
+                RosterFormat format = RosterFormat.of(name);
+                if (format == null) {
+                    event.fail("Unsupported file type", 0);
+                    continue;
+                }
+                if (event.getEventType() == null) {
+                    continue;
+                }
+
+                // Entries are written under our own names, never the ones in the archive
+                Path file = directory.resolve("entry-" + parts.size() + format.getExtension());
+                extracted += copyLimited(zip, file, maxExtractedBytes - extracted);
+                parts.add(new Part(event, file, format, null));
+            }
+        }
+    }
+
+    /**
+     * Copies the stream to the file, failing once more than limit bytes have been copied
+     * @return Number of bytes copied
+     */
+    private static long copyLimited(InputStream in, Path target, long limit) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long copied = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                copied += read;
+                if (copied > limit) {
+                    throw new IOException("The archive is too large when extracted");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return copied;
+    }
+
+    private void formPart(Part part, Long seed) {
+        BatchFormation.Event event = part.event;
+        long start = System.nanoTime();
+        try {
+            List<Student> students = new ArrayList<>();
+            if (part.sheetName != null) {
+                excelService.parseSheet(part.file, part.format, part.sheetName, event.getEventType(), students::add,
+                        event.getReport());
+            } else {
+                try (InputStream in = Files.newInputStream(part.file)) {
+                    excelService.parse(in, part.format, event.getEventType(), students::add, event.getReport());
+                }
+            }
+
+            if (event.getReport().isFatal() || students.isEmpty()) {
+                event.fail(event.getReport().isFatal() ? "The roster could not be read" : "No valid data found",
+                        elapsedSince(start));
+                return;
+            }
+            TeamFormationResult result = teamFormationService.formTeams(students, event.getEventType(), seed);
+            event.complete(resultStore.put(result), result, elapsedSince(start));
+        } catch (Exception e) {
+            log.warn("Could not form teams for {} in a batch", event.getName(), e);
+            event.fail("Error processing roster: " + e.getMessage(), elapsedSince(start));
+        }
+    }
+
+    private static long elapsedSince(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}", path);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not delete {}", directory);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Forms one part and then returns its permit to the batch, also when the task was cancelled
+     * before it started; the pool runs the task itself, so its run method is always the last step
+     */
+    private static final class PartTask extends FutureTask<Void> {
+        private final Semaphore running;
+
+        PartTask(Runnable formation, Semaphore running) {
+            super(formation, null);
+            this.running = running;
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run();
+            } finally {
+                running.release();
+            }
+        }
+    }
+
+    /**
+     * A roster file, or a sheet of a workbook, to form one event from
+     */
+    private static class Part {
+        private final BatchFormation.Event event;
+        private final Path file;
+        private final RosterFormat format;
+        private final String sheetName;  // null for a whole file
+
+        Part(BatchFormation.Event event, Path file, RosterFormat format, String sheetName) {
+            this.event = event;
+            this.file = file;
+            this.format = format;
+            this.sheetName = sheetName;
+        }
+    }
+}
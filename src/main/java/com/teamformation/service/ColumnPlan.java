@@ -0,0 +1,529 @@
+package com.teamformation.service;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.RosterIssue;
+import com.teamformation.model.Student;
+import com.teamformation.model.ValidationReport;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * How the columns of a roster map to student fields for one event type.
+ * Header texts are matched against an alias table once, and the resulting plan reads each row
+ * through a fixed list of column extractors. Uploads for the same event reuse a handful of
+ * header layouts, so plans are cached per event type and header row.
+ */
+@Slf4j
+final class ColumnPlan {
+
+    // Distinct header layouts remembered; further layouts are resolved without caching
+    private static final int CACHE_LIMIT = 256;
+
+    private static final Map<Key, ColumnPlan> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Logical roster columns
+     */
+    enum Column {
+        TIMESTAMP, EMAIL, NAME, TRACK, BATCH, COURSE_TYPE, WORKING_STATUS, TIME_ZONE,
+        DS_ALGO_COMPLETION, PREVIOUS_HACKATHON, EXPERTISE, API_BOOTCAMP, PREVIOUS_API_HACKATHON
+    }
+
+    /**
+     * Header aliases of the general columns. A header belongs to the first column whose alias it
+     * matches; when several headers match the same column, the last one is used.
+     */
+    private static final List<Alias> ALIASES = List.of(
+            new Alias(Column.TIMESTAMP, containsAll("timestamp")),
+            new Alias(Column.EMAIL, containsAll("email")),
+            new Alias(Column.NAME, containsAll("name").and(containsAll("user").negate())),
+            new Alias(Column.TRACK, containsAll("track")),
+            new Alias(Column.BATCH, containsAll("batch")),
+            new Alias(Column.COURSE_TYPE, containsAll("course type").or(containsAll("course_type"))),
+            new Alias(Column.WORKING_STATUS, containsAll("working")),
+            new Alias(Column.TIME_ZONE, containsAll("time zone").or("timezone"::equals)),
+            new Alias(Column.DS_ALGO_COMPLETION, containsAll("dsalgo").or(containsAll("ds algo"))),
+            new Alias(Column.PREVIOUS_HACKATHON, containsAll("previous", "hackathon")),
+            new Alias(Column.EXPERTISE, containsAll("expertise", "sql").or(containsAll("expertise", "python"))));
+
+    // Python hackathon rosters prefer their Python-specific columns over the general ones
+    private static final Predicate<String> PYTHON_EXPERTISE = containsAll("expertise", "python");
+    private static final Predicate<String> PYTHON_PREVIOUS_HACKATHON = containsAll("previous", "python", "hackathon");
+
+    // API hackathon columns; the first matching header is used
+    private static final Predicate<String> API_BOOTCAMP =
+            containsAll("have you completed user api bootcamp").or(containsAll("api bootcamp"));
+    private static final Predicate<String> PREVIOUS_API_HACKATHON =
+            containsAll("have you participated in any api hackathon").or(containsAll("api hackathon"));
+
+    private static final String[] BOOTCAMP_TRACKS = {"SDET", "DA", "SMPO", "DVLPR"};
+    private static final String[] API_TRACKS = {"SDET", "DA", "DVLPR"};
+    private static final TrackWithBatch[] SQL_PYTHON_TRACKS = TrackWithBatch.of("SDET", "DA", "DVLPR", "SMPO");
+    private static final TrackWithBatch[] SELENIUM_RECIPE_TRACKS = TrackWithBatch.of("SDET", "DA");
+
+    private final Extractor[] extractors;
+
+    /**
+     * Course type of every student, null when it is read from the roster
+     */
+    private final String courseType;
+
+    private ColumnPlan(List<Extractor> extractors, String courseType) {
+        this.extractors = extractors.toArray(new Extractor[0]);
+        this.courseType = courseType;
+    }
+
+    /**
+     * Source of cell values for a single data row.
+     * Returns null when the row has no cell at the given column. A cell that cannot be read is
+     * added to the parse's validation report and also returned as null.
+     */
+    @FunctionalInterface
+    interface RowCells {
+        String get(int columnIndex);
+    }
+
+    /**
+     * Returns the plan for the header row, resolving and caching it on first use.
+     *
+     * @param headers Trimmed, lower-cased header texts by column; null for missing cells
+     * @param eventType The event the roster is being parsed for
+     * @param report Receives the missing columns if the event type requires any that are absent
+     * @return The plan, or null if required columns are missing
+     */
+    static ColumnPlan forHeaders(List<String> headers, EventType eventType, ValidationReport report) {
+        Key key = new Key(eventType, headers);
+        ColumnPlan plan = CACHE.get(key);
+        if (plan == null) {
+            plan = resolve(headers, eventType, report);
+            if (plan != null && CACHE.size() < CACHE_LIMIT) {
+                CACHE.put(key, plan);
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Converts one data row to a student.
+     *
+     * @param row Cell values of the row
+     * @param report Report the row's cells add unreadable cells to
+     * @return The student, or null if the row should be skipped
+     */
+    Student read(RowCells row, ValidationReport report) {
+        Student student = new Student();
+
+        for (Extractor extractor : extractors) {
+            int issues = report.getIssueCount();
+            String value = row.get(extractor.column);
+
+            if (report.getIssueCount() != issues) {
+                if (!extractor.lenient) {
+                    return null; // Skip rows with unreadable cells
+                }
+                value = "";
+            }
+
+            if (!extractor.reader.read(student, value)) {
+                return null;
+            }
+        }
+
+        if (courseType != null) {
+            // For hackathons, use event type as course type to maintain compatibility
+            student.setCourseType(courseType);
+        }
+        return student;
+    }
+
+    private static ColumnPlan resolve(List<String> headers, EventType eventType, ValidationReport report) {
+        int[] columns = new int[Column.values().length];
+        Arrays.fill(columns, -1);
+
+        for (int i = 0; i < headers.size(); i++) {
+            String header = headers.get(i);
+            if (header == null) {
+                continue;
+            }
+            for (Alias alias : ALIASES) {
+                if (alias.matcher.test(header)) {
+                    columns[alias.column.ordinal()] = i;
+                    break;
+                }
+            }
+        }
+
+        // Validate required columns based on event type
+        if (!require(columns, report, "Required columns (Email, Name) missing in the Excel file",
+                Column.EMAIL, Column.NAME)) {
+            return null;
+        }
+
+        switch (eventType) {
+            case SQL_BOOTCAMP:
+                if (!require(columns, report, "Required columns (Track, Course Type) missing for SQL Bootcamp",
+                        Column.TRACK, Column.COURSE_TYPE)) {
+                    return null;
+                }
+                break;
+            case SQL_HACKATHON:
+                if (!require(columns, report, "Required columns (Track, Time Zone, SQL Expertise, Previous Hackathon) missing for SQL Hackathon",
+                        Column.TRACK, Column.TIME_ZONE, Column.EXPERTISE, Column.PREVIOUS_HACKATHON)) {
+                    return null;
+                }
+                break;
+            case PYTHON_HACKATHON:
+                if (!require(columns, report, "Required columns (Track, Time Zone, Python Expertise Level, Previous Hackathon) missing for Python Hackathon",
+                        Column.TRACK, Column.TIME_ZONE, Column.EXPERTISE, Column.PREVIOUS_HACKATHON)) {
+                    return null;
+                }
+
+                int pythonExpertise = lastMatch(headers, PYTHON_EXPERTISE);
+                if (pythonExpertise >= 0) {
+                    columns[Column.EXPERTISE.ordinal()] = pythonExpertise;
+                } else {
+                    log.warn("Python expertise column not found, using SQL expertise column");
+                }
+
+                int pythonPreviousHackathon = lastMatch(headers, PYTHON_PREVIOUS_HACKATHON);
+                if (pythonPreviousHackathon >= 0) {
+                    columns[Column.PREVIOUS_HACKATHON.ordinal()] = pythonPreviousHackathon;
+                } else {
+                    log.warn("Python previous hackathon column not found, using generic previous hackathon column");
+                }
+                break;
+            case SELENIUM_HACKATHON:
+                if (!require(columns, report, "Required columns (Track with Batch No, Working Status, Time Zone) missing for Selenium Hackathon",
+                        Column.TRACK, Column.WORKING_STATUS, Column.TIME_ZONE)) {
+                    return null;
+                }
+                break;
+            case PHASE1_API_HACKATHON:
+            case PHASE2_API_HACKATHON:
+                if (!require(columns, report, "Required columns (Track, Batch No, Working Status, Time Zone) missing for API Hackathon",
+                        Column.TRACK, Column.WORKING_STATUS, Column.TIME_ZONE, Column.BATCH)) {
+                    return null;
+                }
+                columns[Column.API_BOOTCAMP.ordinal()] = firstMatch(headers, API_BOOTCAMP);
+                columns[Column.PREVIOUS_API_HACKATHON.ordinal()] = firstMatch(headers, PREVIOUS_API_HACKATHON);
+                break;
+            case RECIPE_SCRAPING_HACKATHON:
+                if (!require(columns, report, "Required columns (Track with Batch No, Working Status, Time Zone) missing for Recipe Scraping Hackathon",
+                        Column.TRACK, Column.WORKING_STATUS, Column.TIME_ZONE)) {
+                    return null;
+                }
+                break;
+            default:
+                break;
+        }
+
+        return build(columns, eventType);
+    }
+
+    /**
+     * Lays out the extractors the event type reads, in the order the fields are set
+     */
+    private static ColumnPlan build(int[] columns, EventType eventType) {
+        Builder plan = new Builder(columns);
+
+        plan.lenient(Column.TIMESTAMP, ifPresent(Student::setTimestamp));
+        // Rows without email or name are skipped
+        plan.add(Column.EMAIL, (student, value) -> notEmpty(value) && set(student::setEmail, value));
+        plan.add(Column.NAME, (student, value) -> notEmpty(value) && set(student::setName, value));
+
+        switch (eventType) {
+            case SQL_BOOTCAMP:
+                plan.add(Column.TRACK, track(BOOTCAMP_TRACKS));
+                plan.add(Column.BATCH, ifPresent(Student::setBatch));
+                plan.add(Column.COURSE_TYPE, ColumnPlan::readCourseType);
+                return plan.build(null);
+
+            case SQL_HACKATHON:
+            case PYTHON_HACKATHON:
+                plan.add(Column.TRACK, trackWithBatch(SQL_PYTHON_TRACKS));
+                plan.add(Column.TIME_ZONE, ifPresent(Student::setTimeZone));
+                plan.add(Column.PREVIOUS_HACKATHON, ifPresent(ColumnPlan::setPreviousHackathon));
+                plan.add(Column.EXPERTISE, ifPresent(ColumnPlan::setExpertise));
+                return plan.build(eventType.getDisplayName());
+
+            case SELENIUM_HACKATHON:
+            case RECIPE_SCRAPING_HACKATHON:
+                plan.add(Column.TRACK, trackWithBatch(SELENIUM_RECIPE_TRACKS));
+                plan.add(Column.WORKING_STATUS, ifPresent(Student::setWorkingStatus));
+                plan.add(Column.TIME_ZONE, ifPresent(Student::setTimeZone));
+                plan.add(Column.DS_ALGO_COMPLETION, ifPresent(Student::setDsAlgoCompletion));
+                plan.add(Column.PREVIOUS_HACKATHON, ifPresent(ColumnPlan::setPreviousHackathon));
+                return plan.build(eventType.getDisplayName());
+
+            case PHASE1_API_HACKATHON:
+            case PHASE2_API_HACKATHON:
+                plan.add(Column.TRACK, track(API_TRACKS));
+                plan.add(Column.BATCH, ifPresent(Student::setBatch));
+                plan.add(Column.WORKING_STATUS, ifPresent(Student::setWorkingStatus));
+                plan.add(Column.TIME_ZONE, ifPresent(Student::setTimeZone));
+                plan.add(Column.DS_ALGO_COMPLETION, ifPresent(Student::setDsAlgoCompletion));
+                plan.add(Column.API_BOOTCAMP, ifPresent(Student::setApiBootcampCompletion));
+                plan.add(Column.PREVIOUS_API_HACKATHON, ifPresent(ColumnPlan::setPreviousHackathon));
+                return plan.build(eventType.getDisplayName());
+
+            default:
+                return plan.build(null);
+        }
+    }
+
+    /**
+     * @return false, after reporting the message, if any of the required columns is missing
+     */
+    private static boolean require(int[] columns, ValidationReport report, String message, Column... required) {
+        for (Column column : required) {
+            if (columns[column.ordinal()] == -1) {
+                report.add(RosterIssue.file(RosterIssue.Kind.MISSING_COLUMNS, message));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int firstMatch(List<String> headers, Predicate<String> matcher) {
+        for (int i = 0; i < headers.size(); i++) {
+            if (headers.get(i) != null && matcher.test(headers.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastMatch(List<String> headers, Predicate<String> matcher) {
+        for (int i = headers.size() - 1; i >= 0; i--) {
+            if (headers.get(i) != null && matcher.test(headers.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Predicate<String> containsAll(String... terms) {
+        return header -> {
+            for (String term : terms) {
+                if (!header.contains(term)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    // Typed extractors
+
+    private static CellReader ifPresent(BiConsumer<Student, String> setter) {
+        return (student, value) -> {
+            if (value != null) {
+                setter.accept(student, value);
+            }
+            return true;
+        };
+    }
+
+    private static boolean notEmpty(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private static boolean set(Consumer<String> setter, String value) {
+        setter.accept(value);
+        return true;
+    }
+
+    /**
+     * Standardizes the track to the first known track the value mentions
+     */
+    private static CellReader track(String[] knownTracks) {
+        return (student, value) -> {
+            if (value == null) {
+                student.setTrack("Unknown");
+                return true;
+            }
+            String track = value.trim();
+            String upperTrack = track.toUpperCase();
+            for (String known : knownTracks) {
+                if (upperTrack.contains(known)) {
+                    student.setTrack(known);
+                    return true;
+                }
+            }
+            student.setTrack(track);
+            return true;
+        };
+    }
+
+    /**
+     * Splits a combined "track + batch number" value into the standardized track and the batch
+     */
+    private static CellReader trackWithBatch(TrackWithBatch[] knownTracks) {
+        return (student, value) -> {
+            if (value == null) {
+                student.setTrack("Unknown");
+                return true;
+            }
+            String trackWithBatch = value.trim();
+            String upperTrack = trackWithBatch.toUpperCase();
+            for (TrackWithBatch known : knownTracks) {
+                if (upperTrack.contains(known.track)) {
+                    student.setTrack(known.track);
+                    student.setBatch(known.prefix.matcher(trackWithBatch).replaceAll("").trim());
+                    return true;
+                }
+            }
+            student.setTrack(trackWithBatch);
+            return true;
+        };
+    }
+
+    private static boolean readCourseType(Student student, String value) {
+        if (value == null) {
+            return false; // Skip rows without course type
+        }
+        String courseType = value.trim();
+        // Strictly standardize course type names - we only want the specific value "Advanced"
+        if (courseType.equalsIgnoreCase("advanced")) {
+            student.setCourseType("Advanced");
+        } else {
+            // All others are "Full Course"
+            student.setCourseType("Full Course");
+        }
+
+        if (log.isTraceEnabled()) {
+            log.trace("Course type of {}: {} => {}", student.getName(), courseType, student.getCourseType());
+        }
+        return true;
+    }
+
+    private static void setPreviousHackathon(Student student, String value) {
+        student.setPreviousHackathon(value);
+        student.setPreviousHackathonParticipation(value);
+    }
+
+    private static void setExpertise(Student student, String value) {
+        String expertise = value.trim();
+        String lowerExpertise = expertise.toLowerCase();
+        // Standardize expertise values
+        if (lowerExpertise.contains("beginner")) {
+            student.setSqlExpertiseLevel("Beginner");
+        } else if (lowerExpertise.contains("intermediate")) {
+            student.setSqlExpertiseLevel("Intermediate");
+        } else if (lowerExpertise.contains("advanced")) {
+            student.setSqlExpertiseLevel("Advanced");
+        } else {
+            student.setSqlExpertiseLevel(expertise);
+        }
+        log.trace("SQL expertise of {}: {}", student.getName(), student.getSqlExpertiseLevel());
+    }
+
+    /**
+     * Sets a student field from a cell value
+     */
+    @FunctionalInterface
+    private interface CellReader {
+        /**
+         * @param value Cell value, null when the row has no cell in the column
+         * @return false if the row should be skipped
+         */
+        boolean read(Student student, String value);
+    }
+
+    private static final class Extractor {
+        final int column;
+        final CellReader reader;
+
+        // Unreadable cells are taken as empty instead of failing the row
+        final boolean lenient;
+
+        Extractor(int column, CellReader reader, boolean lenient) {
+            this.column = column;
+            this.reader = reader;
+            this.lenient = lenient;
+        }
+    }
+
+    /**
+     * Collects the extractors of the columns present in the roster
+     */
+    private static final class Builder {
+        private final int[] columns;
+        private final List<Extractor> extractors = new ArrayList<>();
+
+        Builder(int[] columns) {
+            this.columns = columns;
+        }
+
+        void add(Column column, CellReader reader) {
+            add(column, reader, false);
+        }
+
+        void lenient(Column column, CellReader reader) {
+            add(column, reader, true);
+        }
+
+        private void add(Column column, CellReader reader, boolean lenient) {
+            int index = columns[column.ordinal()];
+            if (index >= 0) {
+                extractors.add(new Extractor(index, reader, lenient));
+            }
+        }
+
+        ColumnPlan build(String courseType) {
+            return new ColumnPlan(extractors, courseType);
+        }
+    }
+
+    private static final class Alias {
+        final Column column;
+        final Predicate<String> matcher;
+
+        Alias(Column column, Predicate<String> matcher) {
+            this.column = column;
+            this.matcher = matcher;
+        }
+    }
+
+    /**
+     * A track and the pattern that strips everything up to it, leaving the batch number
+     */
+    private static final class TrackWithBatch {
+        final String track;
+        final Pattern prefix;
+
+        TrackWithBatch(String track) {
+            this.track = track;
+            this.prefix = Pattern.compile("(?i).*?" + track + "\\s*");
+        }
+
+        static TrackWithBatch[] of(String... tracks) {
+            TrackWithBatch[] result = new TrackWithBatch[tracks.length];
+            for (int i = 0; i < tracks.length; i++) {
+                result[i] = new TrackWithBatch(tracks[i]);
+            }
+            return result;
+        }
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        private final EventType eventType;
+        private final List<String> headers;
+
+        Key(EventType eventType, List<String> headers) {
+            this.eventType = eventType;
+            this.headers = headers;
+        }
+    }
+}
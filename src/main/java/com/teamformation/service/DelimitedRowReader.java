@@ -0,0 +1,164 @@
+package com.teamformation.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads records of a CSV or TSV file one at a time.
+ * Fields may be quoted to contain delimiters, line breaks or doubled quotes. Only the current
+ * record is held in memory: a single field may not exceed {@link #MAX_FIELD_LENGTH} characters, so a
+ * stray quote cannot swallow the rest of the file, and a record may not have more than {@link #MAX_FIELDS}
+ * fields, so a line of delimiters cannot fill the heap with empty ones.
+ */
+class DelimitedRowReader {
+
+    static final int MAX_FIELD_LENGTH = 1 << 16;
+    static final int MAX_FIELDS = 1024;
+
+    private static final char QUOTE = '"';
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+    private final char delimiter;
+
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean started;
+
+    private final StringBuilder field = new StringBuilder();
+    private int lineNumber = 1;
+
+    /**
+     * @param reader Source of the file contents; not closed by this reader
+     * @param delimiter Field separator, ',' for CSV or '\t' for TSV
+     */
+    DelimitedRowReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Reads the next non-blank record.
+     * Empty unquoted fields are returned as null, like missing cells of a worksheet.
+     *
+     * @return The fields of the record, or null at the end of the input
+     * @throws IOException if the input cannot be read, a quoted field is not terminated, or a field or
+     *                     the record is too large
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        boolean inQuotes = false;
+        boolean fieldQuoted = false;
+        int quoteLine = 0;
+        field.setLength(0);
+
+        while (true) {
+            int c = read();
+
+            if (c == -1) {
+                if (inQuotes) {
+                    throw new IOException("Unterminated quoted field starting on line " + quoteLine);
+                }
+                if (fields.isEmpty() && field.length() == 0 && !fieldQuoted) {
+                    return null;
+                }
+                endField(fields, fieldQuoted);
+                return fields;
+            }
+
+            if (inQuotes) {
+                if (c == QUOTE) {
+                    if (peek() == QUOTE) {
+                        read();
+                        append(QUOTE);
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    append((char) c);
+                }
+            } else if (c == delimiter) {
+                endField(fields, fieldQuoted);
+                fieldQuoted = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                // Skip blank lines
+                if (fields.isEmpty() && field.length() == 0 && !fieldQuoted) {
+                    lineNumber++;
+                    continue;
+                }
+                endField(fields, fieldQuoted);
+                lineNumber++;
+                return fields;
+            } else if (c == QUOTE && field.length() == 0 && !fieldQuoted) {
+                inQuotes = true;
+                fieldQuoted = true;
+                quoteLine = lineNumber;
+            } else {
+                append((char) c);
+            }
+        }
+    }
+
+    private void endField(List<String> fields, boolean quoted) throws IOException {
+        if (fields.size() >= MAX_FIELDS) {
+            throw new IOException("Record on line " + lineNumber + " has more than " + MAX_FIELDS + " fields");
+        }
+        fields.add(field.length() == 0 && !quoted ? null : field.toString());
+        field.setLength(0);
+    }
+
+    private void append(char c) throws IOException {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IOException("Field on line " + lineNumber + " exceeds " + MAX_FIELD_LENGTH + " characters");
+        }
+        field.append(c);
+    }
+
+    private int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+
+        // Spreadsheet exports often start with a UTF-8 byte order mark
+        if (!started) {
+            started = true;
+            if (buffer[0] == BYTE_ORDER_MARK) {
+                position = 1;
+                return fill();
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,181 @@
+package com.teamformation.service;
+
+import com.teamformation.model.TeamFormationResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Result store that serializes results to files, so they survive restarts and take no heap between views.
+ * A file's modification time is refreshed on every read; files past the time-to-live are deleted and,
+ * beyond the entry limit, the least recently read ones go first.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "teamformation.results.store", havingValue = "disk")
+public class DiskResultStore implements ResultStore {
+
+    private static final String SUFFIX = ".result";
+
+    private final Path directory;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public DiskResultStore(@Value("${teamformation.results.directory:${java.io.tmpdir}/teamformation-results}") String directory,
+                           @Value("${teamformation.results.max-entries:100}") int maxEntries,
+                           @Value("${teamformation.results.ttl-minutes:60}") long ttlMinutes) throws IOException {
+        this.directory = Files.createDirectories(Paths.get(directory));
+        this.maxEntries = maxEntries;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        log.info("Storing results in {}", this.directory);
+    }
+
+    @Override
+    public String put(TeamFormationResult result) {
+        String id = UUID.randomUUID().toString();
+        Path temp = null;
+        try {
+            // Write aside and move into place, so readers never see a partial file
+            temp = Files.createTempFile(directory, "writing-", ".tmp");
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeObject(result);
+            }
+            Files.move(temp, fileOf(id), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new UncheckedIOException("Could not store result", e);
+        }
+        evict();
+        return id;
+    }
+
+    @Override
+    public TeamFormationResult get(String id) {
+        Path file = fileOf(id);
+        if (file == null || !Files.exists(file)) {
+            return null;
+        }
+
+        try {
+            if (isExpired(file, System.currentTimeMillis())) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                return (TeamFormationResult) in.readObject();
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // Evicted while reading, or written by an incompatible version
+            log.warn("Could not read result {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        Path file = fileOf(id);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete result {}: {}", id, e.getMessage());
+        }
+    }
+
+    @Override
+    public int size() {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return (int) listing.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).count();
+        } catch (IOException e) {
+            log.warn("Could not list results in {}: {}", directory, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * File of the result, or null if the ID is not one this store hands out
+     */
+    private Path fileOf(String id) {
+        try {
+            return directory.resolve(UUID.fromString(id) + SUFFIX);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private synchronized void evict() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        Map<Path, Long> lastRead = new HashMap<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(file -> lastRead.put(file, lastModified(file)));
+        } catch (IOException e) {
+            log.warn("Could not list results in {}: {}", directory, e.getMessage());
+            return;
+        }
+
+        // Least recently read first
+        List<Path> files = new ArrayList<>(lastRead.keySet());
+        files.sort(Comparator.comparingLong(lastRead::get));
+        int remaining = files.size();
+        for (Path file : files) {
+            boolean expired = ttlMillis > 0 && lastRead.get(file) < cutoff;
+            if (remaining <= maxEntries && !expired) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(file);
+                remaining--;
+            } catch (IOException e) {
+                log.warn("Could not delete result file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private boolean isExpired(Path file, long now) {
+        return ttlMillis > 0 && now - lastModified(file) > ttlMillis;
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0; // Already gone
+        }
+    }
+}
@@ -1,681 +1,865 @@
 package com.teamformation.service;
 
 import com.teamformation.exception.ExcelFormulaException;
+import com.teamformation.metrics.FormationMetrics;
 import com.teamformation.model.EventType;
+import com.teamformation.model.RosterIssue;
 import com.teamformation.model.Student;
+import com.teamformation.model.ValidationReport;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 
+import javax.annotation.PreDestroy;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
+/**
+ * Reads uploaded rosters into students.
+ * Each parser has a report variant that collects header, column and cell problems into a
+ * {@link ValidationReport} and skips the affected rows, so every problem in a file can be shown at
+ * once. The variants without a report throw the first problem that prevents reading the roster
+ * and log the skipped rows.
+ */
 @Service
 @Slf4j
 public class ExcelService {
 
+    private static final String NO_HEADER = "File is empty or does not contain a header row";
+    private static final String HEADER_NOT_TEXT = "Cannot process Excel header due to a numeric formula";
+    private static final String CELL_NOT_TEXT = "Cannot get a STRING value from a NUMERIC formula cell";
+
+    public static final int DEFAULT_CHUNK_ROWS = 2048;
+
+    private final int parallelThreshold;
+    private final int chunkRows;
+    private final int parallelism;
+
+    private final FormationMetrics metrics;
+
+    private ForkJoinPool pool;
+
+    /**
+     * Parser that converts all rows on the calling thread
+     */
+    public ExcelService() {
+        this(0, DEFAULT_CHUNK_ROWS, 1);
+    }
+
+    /**
+     * Parser without metrics
+     */
+    public ExcelService(int parallelThreshold, int chunkRows, int parallelism) {
+        this(parallelThreshold, chunkRows, parallelism, FormationMetrics.NOOP);
+    }
+
+    /**
+     * @param parallelThreshold Rows from which a sheet is converted in parallel chunks, 0 to never
+     * @param chunkRows Rows converted per parallel task
+     * @param parallelism Worker threads, 0 for one per available processor
+     */
+    @Autowired
+    public ExcelService(@Value("${teamformation.parsing.parallel-threshold:20000}") int parallelThreshold,
+                        @Value("${teamformation.parsing.chunk-rows:2048}") int chunkRows,
+                        @Value("${teamformation.parsing.parallelism:0}") int parallelism,
+                        FormationMetrics metrics) {
+        this.parallelThreshold = Math.max(0, parallelThreshold);
+        this.chunkRows = chunkRows > 0 ? chunkRows : DEFAULT_CHUNK_ROWS;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Parses a roster in any supported format, collecting problems into the report.
+     * .xlsx, CSV and TSV files are streamed row by row; legacy .xls files need the in-memory workbook.
+     *
+     * @param consumer Receives each student in file order as soon as it has been read
+     */
+    public void parse(InputStream inputStream, RosterFormat format, EventType eventType, Consumer<Student> consumer,
+                      ValidationReport report) throws Exception {
+        switch (format) {
+            case XLSX:
+                streamExcelFile(inputStream, eventType, consumer, report);
+                break;
+            case CSV:
+                streamDelimitedFile(inputStream, ',', eventType, consumer, report);
+                break;
+            case TSV:
+                streamDelimitedFile(inputStream, '\t', eventType, consumer, report);
+                break;
+            default:
+                parseExcelFile(inputStream, eventType, report).forEach(consumer);
+                break;
+        }
+    }
+
     public List<Student> parseExcelFile(InputStream inputStream, EventType eventType) throws Exception {
-        List<Student> students = new ArrayList<>();
-        
+        ValidationReport report = new ValidationReport();
+        List<Student> students = parseExcelFile(inputStream, eventType, report);
+        checkReport(report);
+        return students;
+    }
+
+    /**
+     * Parses an Excel file with the in-memory workbook, collecting problems into the report.
+     *
+     * @return The students of the rows that could be read, in sheet order
+     */
+    public List<Student> parseExcelFile(InputStream inputStream, EventType eventType, ValidationReport report) throws Exception {
+        Timer.Sample sample = metrics.start();
+        try {
+            return readWorkbook(inputStream, eventType, report);
+        } finally {
+            metrics.parsed(sample, "workbook", eventType);
+        }
+    }
+
+    private List<Student> readWorkbook(InputStream inputStream, EventType eventType, ValidationReport report) throws Exception {
         try (Workbook workbook = WorkbookFactory.create(inputStream)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            
-            // Get column indices from header row
-            int timestampIdx = -1;
-            int emailIdx = -1;
-            int nameIdx = -1;
-            int trackIdx = -1;
-            int batchIdx = -1;
-            int courseTypeIdx = -1;
-            int workingStatusIdx = -1;
-            int timeZoneIdx = -1;
-            int dsAlgoCompletionIdx = -1;
-            int previousHackathonIdx = -1;
-            int sqlExpertiseIdx = -1;
-            
-            Row headerRow = sheet.getRow(0);
-            if (headerRow == null) {
-                throw new Exception("Excel file is empty or does not contain a header row");
-            }
-            
-            for (int i = 0; i < headerRow.getLastCellNum(); i++) {
-                Cell cell = headerRow.getCell(i);
+            return readSheet(workbook.getSheetAt(0), eventType, report);
+        }
+    }
+
+    private List<Student> readSheet(Sheet sheet, EventType eventType, ValidationReport report) {
+        List<Student> students = new ArrayList<>();
+
+        Row headerRow = sheet.getRow(0);
+        if (headerRow == null) {
+            report.add(RosterIssue.file(RosterIssue.Kind.MISSING_HEADER, NO_HEADER));
+            return students;
+        }
+
+        List<String> headers = new ArrayList<>();
+        for (int i = 0; i < headerRow.getLastCellNum(); i++) {
+            Cell cell = headerRow.getCell(i);
+            if (cell != null && isText(cell)) {
+                headers.add(cell.getStringCellValue().trim().toLowerCase());
+            } else {
                 if (cell != null) {
-                    String header;
-                    try {
-                        header = cell.getStringCellValue().trim().toLowerCase();
-                    } catch (IllegalStateException e) {
-                        // This catches the "Cannot get a STRING value from a NUMERIC formula cell" error in header row
-                        String sheetName = sheet.getSheetName();
-                        String cellRef = cell.getAddress().formatAsString();
-                        int rowIndex = cell.getRowIndex();
-                        int columnIndex = cell.getColumnIndex();
-                        String formula = "";
-                        try {
-                            formula = cell.getCellFormula();
-                        } catch (Exception ignored) {}
-                        
-                        String columnName = getColumnName(columnIndex);
-                        
-                        System.err.println("EXCEL_HEADER_ERROR: Formula cell in header row at " + 
-                                         sheetName + "!" + cellRef + 
-                                         " (Column: " + columnName + ")");
-                        
-                        throw new ExcelFormulaException(
-                            "Cannot process Excel header due to a numeric formula",
-                            sheetName,
-                            cellRef,
-                            formula,
-                            rowIndex,
-                            columnIndex
-                        );
-                    }
-                    
-                    if (header.contains("timestamp")) {
-                        timestampIdx = i;
-                    } else if (header.contains("email")) {
-                        emailIdx = i;
-                    } else if (header.contains("name") && !header.contains("user")) {
-                        nameIdx = i;
-                    } else if (header.contains("track")) {
-                        trackIdx = i;
-                    } else if (header.contains("batch")) {
-                        batchIdx = i;
-                    } else if (header.contains("course type") || header.contains("course_type")) {
-                        courseTypeIdx = i;
-                    } else if (header.contains("working")) {
-                        workingStatusIdx = i;
-                    } else if (header.contains("time zone") || header.equals("timezone") || header.contains("which time zone")) {
-                        timeZoneIdx = i;
-                    } else if (header.contains("dsalgo") || header.contains("ds algo")) {
-                        dsAlgoCompletionIdx = i;
-                    } else if (header.contains("previous") && header.contains("hackathon")) {
-                        previousHackathonIdx = i;
-                    } else if ((header.contains("expertise") && header.contains("sql")) || 
-                             (header.contains("expertise") && header.contains("python"))) {
-                        sqlExpertiseIdx = i;
-                    }
+                    report.add(RosterIssue.cell(RosterIssue.Kind.HEADER_FORMULA, HEADER_NOT_TEXT,
+                            sheet.getSheetName(), cell.getAddress().formatAsString(), formulaOf(cell),
+                            cell.getRowIndex(), cell.getColumnIndex()));
                 }
+                headers.add(null);
             }
-            
-            // Validate required columns based on event type
-            if (emailIdx == -1 || nameIdx == -1) {
-                throw new Exception("Required columns (Email, Name) missing in the Excel file");
-            }
-            
-            if (eventType == EventType.SQL_BOOTCAMP) {
-                if (trackIdx == -1 || courseTypeIdx == -1) {
-                    throw new Exception("Required columns (Track, Course Type) missing for SQL Bootcamp");
+        }
+
+        ColumnPlan plan = report.isFatal() ? null : ColumnPlan.forHeaders(headers, eventType, report);
+        if (plan == null) {
+            return students;
+        }
+
+        int lastRow = sheet.getLastRowNum();
+        DuplicateEmails duplicates = new DuplicateEmails();
+
+        if (isParallel(lastRow)) {
+            // POI does not support concurrent reads of a workbook, so the cell values are copied
+            // on this thread and only their conversion to students runs on the pool
+            ParallelRows rows = new ParallelRows(plan, students::add, duplicates, report);
+            for (int i = 1; i <= lastRow; i++) {
+                Row row = sheet.getRow(i);
+                if (row != null) {
+                    rows.add(copyRow(sheet.getSheetName(), row));
                 }
-            } else if (eventType == EventType.SQL_HACKATHON) {
-                if (trackIdx == -1 || timeZoneIdx == -1 || sqlExpertiseIdx == -1 || previousHackathonIdx == -1) {
-                    throw new Exception("Required columns (Track, Time Zone, SQL Expertise, Previous Hackathon) missing for SQL Hackathon");
+            }
+            rows.finish();
+        } else {
+            Map<String, String> values = new HashMap<>();
+            for (int i = 1; i <= lastRow; i++) {
+                Student student = convertRow(sheet, plan, i, report, values);
+                if (student != null) {
+                    students.add(student);
+                    duplicates.check(student, i, report);
                 }
-            } else if (eventType == EventType.PYTHON_HACKATHON) {
-                if (trackIdx == -1 || timeZoneIdx == -1 || sqlExpertiseIdx == -1 || previousHackathonIdx == -1) {
-                    throw new Exception("Required columns (Track, Time Zone, Python Expertise Level, Previous Hackathon) missing for Python Hackathon");
+            }
+        }
+
+        return students;
+    }
+
+    /**
+     * Whether a sheet whose last row has the given index is converted in parallel chunks
+     */
+    private boolean isParallel(int lastRow) {
+        return isParallelEnabled() && lastRow >= parallelThreshold;
+    }
+
+    private boolean isParallelEnabled() {
+        return parallelThreshold > 0 && parallelism > 1;
+    }
+
+    /**
+     * Copies the values of a workbook row, with the problems of cells that cannot be read,
+     * so the row can be converted off the thread that reads the workbook
+     */
+    private StreamingSheetHandler.SheetRow copyRow(String sheetName, Row row) {
+        StreamingSheetHandler.SheetRow copy = new StreamingSheetHandler.SheetRow(sheetName, row.getRowNum());
+        for (int i = 0; i < row.getLastCellNum(); i++) {
+            Cell cell = row.getCell(i);
+            if (cell == null) {
+                continue;
+            }
+            if (cell.getCellType() != CellType.FORMULA) {
+                copy.setCell(i, new StreamingSheetHandler.SheetCell(row.getRowNum(), i, valueOf(cell, cell.getCellType()), null));
+                continue;
+            }
+            try {
+                copy.setCell(i, new StreamingSheetHandler.SheetCell(row.getRowNum(), i, formulaValue(cell), null));
+            } catch (RuntimeException e) {
+                copy.setCell(i, new StreamingSheetHandler.SheetCell(row.getRowNum(), i, null, unreadableCell(cell)));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Converts sheet rows to students, collecting their issues separately
+     */
+    private RowChunk convertRows(List<StreamingSheetHandler.SheetRow> rows, ColumnPlan plan, int maxIssues) {
+        RowChunk chunk = new RowChunk(new ValidationReport(maxIssues), rows.size());
+        Map<String, String> values = new HashMap<>();
+        for (StreamingSheetHandler.SheetRow row : rows) {
+            Student student = convertRow(row, plan, chunk.report, values);
+            if (student != null) {
+                chunk.add(student, row.getRowIndex());
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Converts a row read by the streaming parser, or copied from a workbook; cells that could not
+     * be read are reported when the row uses them
+     */
+    private Student convertRow(StreamingSheetHandler.SheetRow row, ColumnPlan plan, ValidationReport report,
+                               Map<String, String> values) {
+        return toStudent(columnIndex -> {
+            StreamingSheetHandler.SheetCell cell = row.getCell(columnIndex);
+            if (cell == null) {
+                return null;
+            }
+            if (cell.getIssue() != null) {
+                report.add(cell.getIssue());
+                return null;
+            }
+            return cell.getValue();
+        }, plan, row.getRowIndex(), report, values);
+    }
+
+    private Student convertRow(Sheet sheet, ColumnPlan plan, int i, ValidationReport report,
+                               Map<String, String> values) {
+        Row row = sheet.getRow(i);
+        if (row == null) {
+            return null;
+        }
+        return toStudent(columnIndex -> {
+            Cell cell = row.getCell(columnIndex);
+            return cell != null ? getCellValueAsString(cell, report) : null;
+        }, plan, i, report, values);
+    }
+
+    /**
+     * Students converted from a range of rows, with their row indices and the range's issues
+     */
+    private static final class RowChunk {
+        final ValidationReport report;
+        final List<Student> students;
+        final int[] rows;
+
+        RowChunk(ValidationReport report, int capacity) {
+            this.report = report;
+            this.students = new ArrayList<>(capacity);
+            this.rows = new int[capacity];
+        }
+
+        void add(Student student, int rowIndex) {
+            rows[students.size()] = rowIndex;
+            students.add(student);
+        }
+
+        /**
+         * Appends the students to the list and the issues to the report, interleaved by row
+         * as the sequential conversion would have reported them
+         */
+        void mergeInto(Consumer<Student> consumer, DuplicateEmails duplicates, ValidationReport allIssues) {
+            List<RosterIssue> issues = report.getIssues();
+            int nextIssue = 0;
+            for (int k = 0; k < students.size(); k++) {
+                while (nextIssue < issues.size() && issues.get(nextIssue).getRowIndex() <= rows[k]) {
+                    allIssues.add(issues.get(nextIssue++));
                 }
-                
-                // For Python Hackathon, verify that we have Python-specific column headers
-                boolean hasPythonExpertise = false;
-                boolean hasPythonPreviousParticipation = false;
-                
-                for (int i = 0; i < headerRow.getLastCellNum(); i++) {
-                    Cell cell = headerRow.getCell(i);
-                    if (cell != null) {
-                        String header = cell.getStringCellValue().trim().toLowerCase();
-                        
-                        // Check for Python-specific expertise column
-                        if (header.contains("expertise") && header.contains("python")) {
-                            hasPythonExpertise = true;
-                            sqlExpertiseIdx = i; // Reuse the same index
-                        }
-                        
-                        // Check for Python-specific previous participation
-                        if (header.contains("previous") && header.contains("python") && header.contains("hackathon")) {
-                            hasPythonPreviousParticipation = true;
-                            previousHackathonIdx = i; // Reuse the same index
-                        }
+                consumer.accept(students.get(k));
+                duplicates.check(students.get(k), rows[k], allIssues);
+            }
+            while (nextIssue < issues.size()) {
+                allIssues.add(issues.get(nextIssue++));
+            }
+            allIssues.addOmitted(report);
+        }
+    }
+
+    /**
+     * Converts rows in chunks on the pool while later rows are still being read, then hands the
+     * students to the consumer in sheet order, so students, issues and duplicate detection match
+     * the sequential conversion. Only a few chunks per worker are in flight at a time, so a
+     * streamed sheet is never held in memory as a whole.
+     */
+    private final class ParallelRows {
+        private final ColumnPlan plan;
+        private final Consumer<Student> consumer;
+        private final DuplicateEmails duplicates;
+        private final ValidationReport report;
+        private final Deque<ForkJoinTask<RowChunk>> pending = new ArrayDeque<>();
+        private List<StreamingSheetHandler.SheetRow> chunk = new ArrayList<>(chunkRows);
+
+        ParallelRows(ColumnPlan plan, Consumer<Student> consumer, DuplicateEmails duplicates, ValidationReport report) {
+            this.plan = plan;
+            this.consumer = consumer;
+            this.duplicates = duplicates;
+            this.report = report;
+        }
+
+        void add(StreamingSheetHandler.SheetRow row) {
+            chunk.add(row);
+            if (chunk.size() == chunkRows) {
+                submit();
+            }
+        }
+
+        /**
+         * Converts the remaining rows and waits for every chunk
+         */
+        void finish() {
+            if (!chunk.isEmpty()) {
+                submit();
+            }
+            while (!pending.isEmpty()) {
+                pending.poll().join().mergeInto(consumer, duplicates, report);
+            }
+        }
+
+        private void submit() {
+            List<StreamingSheetHandler.SheetRow> rows = chunk;
+            chunk = new ArrayList<>(chunkRows);
+            pending.add(pool().submit(() -> convertRows(rows, plan, report.getMaxIssues())));
+            while (pending.size() > 2 * parallelism) {
+                pending.poll().join().mergeInto(consumer, duplicates, report);
+            }
+        }
+    }
+
+    /**
+     * Reports rows whose email an earlier row already used. Emails match in any letter case,
+     * the way team formation tells students apart.
+     */
+    private static final class DuplicateEmails {
+        private final Map<String, Integer> firstRows = new HashMap<>();
+
+        void check(Student student, int rowIndex, ValidationReport report) {
+            Integer firstRow = firstRows.putIfAbsent(student.getEmail().trim().toLowerCase(), rowIndex);
+            if (firstRow != null) {
+                report.add(RosterIssue.row(RosterIssue.Kind.DUPLICATE_EMAIL,
+                        "Duplicate email " + student.getEmail() + ", also in row " + (firstRow + 1), rowIndex));
+            }
+        }
+    }
+
+    /**
+     * Parses an .xlsx file with POI's event API instead of building the workbook in memory.
+     * Rows are converted one at a time, so memory use stays bounded regardless of the
+     * number of rows. Produces the same students, row errors and ExcelFormulaException
+     * details as {@link #parseExcelFile(InputStream, EventType)}.
+     *
+     * @param inputStream The .xlsx file contents
+     * @param eventType The event the roster is being parsed for
+     * @return The parsed students in sheet order
+     */
+    public List<Student> parseExcelFileStreaming(InputStream inputStream, EventType eventType) throws Exception {
+        List<Student> students = new ArrayList<>();
+        streamExcelFile(inputStream, eventType, students::add);
+        return students;
+    }
+
+    /**
+     * Streams the first sheet of an .xlsx file and hands each parsed student to the consumer
+     * as soon as its row has been read.
+     *
+     * @param inputStream The .xlsx file contents
+     * @param eventType The event the roster is being parsed for
+     * @param consumer Receives each student in sheet order
+     */
+    public void streamExcelFile(InputStream inputStream, EventType eventType, Consumer<Student> consumer) throws Exception {
+        ValidationReport report = new ValidationReport();
+        streamExcelFile(inputStream, eventType, consumer, report);
+        checkReport(report);
+    }
+
+    /**
+     * Streams the first sheet of an .xlsx file like {@link #streamExcelFile(InputStream, EventType, Consumer)},
+     * collecting problems into the report instead of failing.
+     */
+    public void streamExcelFile(InputStream inputStream, EventType eventType, Consumer<Student> consumer,
+                                ValidationReport report) throws Exception {
+        Timer.Sample sample = metrics.start();
+        try {
+            readXlsxStream(inputStream, eventType, consumer, report);
+        } finally {
+            metrics.parsed(sample, "xlsx-stream", eventType);
+        }
+    }
+
+    private void readXlsxStream(InputStream inputStream, EventType eventType, Consumer<Student> consumer,
+                                ValidationReport report) throws Exception {
+        // OPCPackage needs random access to the zip entries; spool the upload to a temporary
+        // file so that the package is read from disk rather than buffered on the heap
+        Path tempFile = Files.createTempFile("roster-", ".xlsx");
+        try {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            readXlsxFile(tempFile, null, eventType, consumer, report);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Streams one sheet of an .xlsx file on disk
+     * @param sheetName Name of the sheet, null for the first
+     */
+    private void readXlsxFile(Path file, String sheetName, EventType eventType, Consumer<Student> consumer,
+                              ValidationReport report) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            SharedStrings sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheetData = sheets.next()) {
+                    if (sheetName != null && !sheetName.equals(sheets.getSheetName())) {
+                        continue;
                     }
+                    StreamingRowParser rowParser = new StreamingRowParser(eventType, consumer, report);
+
+                    XMLReader xmlReader = XMLHelper.newXMLReader();
+                    xmlReader.setContentHandler(new StreamingSheetHandler(sharedStrings, styles, sheets.getSheetName(), rowParser));
+                    xmlReader.parse(new InputSource(sheetData));
+                    rowParser.finish();
+
+                    if (!rowParser.hasHeader()) {
+                        report.add(RosterIssue.file(RosterIssue.Kind.MISSING_HEADER, NO_HEADER));
+                    }
+                    return;
                 }
-                
-                // Log a warning if Python-specific columns weren't found
-                if (!hasPythonExpertise) {
-                    System.out.println("Warning: Python expertise column not found, using SQL expertise column");
-                }
-                
-                if (!hasPythonPreviousParticipation) {
-                    System.out.println("Warning: Python previous hackathon column not found, using generic previous hackathon column");
+            }
+            report.add(RosterIssue.file(RosterIssue.Kind.MISSING_HEADER,
+                    sheetName != null ? "Workbook has no sheet named " + sheetName : NO_HEADER));
+        }
+    }
+
+    /**
+     * Names of the sheets of an Excel roster on disk, in workbook order
+     */
+    public List<String> sheetNames(Path file, RosterFormat format) throws Exception {
+        List<String> names = new ArrayList<>();
+        if (format == RosterFormat.XLSX) {
+            try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+                while (sheets.hasNext()) {
+                    try (InputStream ignored = sheets.next()) {
+                        names.add(sheets.getSheetName());
+                    }
                 }
-            } else if (eventType == EventType.SELENIUM_HACKATHON) {
-                if (trackIdx == -1 || workingStatusIdx == -1 || timeZoneIdx == -1) {
-                    throw new Exception("Required columns (Track with Batch No, Working Status, Time Zone) missing for Selenium Hackathon");
+            }
+        } else if (format == RosterFormat.XLS) {
+            try (Workbook workbook = WorkbookFactory.create(file.toFile(), null, true)) {
+                for (Sheet sheet : workbook) {
+                    names.add(sheet.getSheetName());
                 }
-            } else if (eventType == EventType.PHASE1_API_HACKATHON || eventType == EventType.PHASE2_API_HACKATHON) {
-                if (trackIdx == -1 || workingStatusIdx == -1 || timeZoneIdx == -1 || batchIdx == -1) {
-                    throw new Exception("Required columns (Track, Batch No, Working Status, Time Zone) missing for API Hackathon");
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Parses one sheet of an Excel roster on disk, collecting problems into the report.
+     * Each call opens the file on its own, so different sheets of one workbook can be parsed concurrently.
+     *
+     * @param consumer Receives each student in sheet order
+     */
+    public void parseSheet(Path file, RosterFormat format, String sheetName, EventType eventType,
+                           Consumer<Student> consumer, ValidationReport report) throws Exception {
+        Timer.Sample sample = metrics.start();
+        try {
+            if (format == RosterFormat.XLSX) {
+                readXlsxFile(file, sheetName, eventType, consumer, report);
+                return;
+            }
+            try (Workbook workbook = WorkbookFactory.create(file.toFile(), null, true)) {
+                Sheet sheet = workbook.getSheet(sheetName);
+                if (sheet == null) {
+                    report.add(RosterIssue.file(RosterIssue.Kind.MISSING_HEADER, "Workbook has no sheet named " + sheetName));
+                    return;
                 }
-            } else if (eventType == EventType.RECIPE_SCRAPING_HACKATHON) {
-                if (trackIdx == -1 || workingStatusIdx == -1 || timeZoneIdx == -1) {
-                    throw new Exception("Required columns (Track with Batch No, Working Status, Time Zone) missing for Recipe Scraping Hackathon");
+                readSheet(sheet, eventType, report).forEach(consumer);
+            }
+        } finally {
+            metrics.parsed(sample, format == RosterFormat.XLSX ? "xlsx-stream" : "workbook", eventType);
+        }
+    }
+
+    /**
+     * Streams a CSV or TSV roster and hands each parsed student to the consumer as soon as its
+     * record has been read. Columns are mapped and rows validated exactly as for Excel files,
+     * and only one record is held in memory at a time.
+     *
+     * @param inputStream The UTF-8 file contents
+     * @param delimiter Field separator, ',' for CSV or '\t' for TSV
+     * @param eventType The event the roster is being parsed for
+     * @param consumer Receives each student in file order
+     */
+    public void streamDelimitedFile(InputStream inputStream, char delimiter, EventType eventType,
+                                    Consumer<Student> consumer) throws Exception {
+        ValidationReport report = new ValidationReport();
+        streamDelimitedFile(inputStream, delimiter, eventType, consumer, report);
+        checkReport(report);
+    }
+
+    /**
+     * Streams a CSV or TSV roster like {@link #streamDelimitedFile(InputStream, char, EventType, Consumer)},
+     * collecting problems into the report instead of failing.
+     */
+    public void streamDelimitedFile(InputStream inputStream, char delimiter, EventType eventType,
+                                    Consumer<Student> consumer, ValidationReport report) throws Exception {
+        Timer.Sample sample = metrics.start();
+        try {
+            readDelimited(inputStream, delimiter, eventType, consumer, report);
+        } finally {
+            metrics.parsed(sample, "delimited", eventType);
+        }
+    }
+
+    private void readDelimited(InputStream inputStream, char delimiter, EventType eventType,
+                               Consumer<Student> consumer, ValidationReport report) throws Exception {
+        Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        DelimitedRowReader rows = new DelimitedRowReader(reader, delimiter);
+
+        List<String> headerRow = rows.next();
+        if (headerRow == null) {
+            report.add(RosterIssue.file(RosterIssue.Kind.MISSING_HEADER, NO_HEADER));
+            return;
+        }
+
+        List<String> headers = new ArrayList<>(headerRow.size());
+        for (String header : headerRow) {
+            headers.add(header != null ? header.trim().toLowerCase() : null);
+        }
+        ColumnPlan plan = ColumnPlan.forHeaders(headers, eventType, report);
+        if (plan == null) {
+            return;
+        }
+
+        DuplicateEmails duplicates = new DuplicateEmails();
+        Map<String, String> values = new HashMap<>();
+        List<String> cells;
+        for (int i = 1; (cells = rows.next()) != null; i++) {
+            List<String> row = cells;
+            Student student = toStudent(columnIndex -> columnIndex < row.size() ? row.get(columnIndex) : null,
+                    plan, i, report, values);
+
+            if (student != null) {
+                consumer.accept(student);
+                duplicates.check(student, i, report);
+            }
+        }
+    }
+
+    /**
+     * Row listener for the streaming parser. The first row is resolved as the header,
+     * every following row is converted to a student. When parallel conversion is on, the first
+     * rows are held until the sheet turns out to reach the parallel threshold; from then on rows
+     * are converted in parallel chunks, and shorter sheets are converted one row at a time.
+     */
+    private class StreamingRowParser implements StreamingSheetHandler.RowListener {
+        private final EventType eventType;
+        private final Consumer<Student> consumer;
+        private final ValidationReport report;
+        private final DuplicateEmails duplicates = new DuplicateEmails();
+        private final Map<String, String> values = new HashMap<>();
+        private final List<StreamingSheetHandler.SheetRow> held = new ArrayList<>();
+        private ColumnPlan plan;
+        private boolean headerSeen;
+        private ParallelRows parallelRows;
+
+        StreamingRowParser(EventType eventType, Consumer<Student> consumer, ValidationReport report) {
+            this.eventType = eventType;
+            this.consumer = consumer;
+            this.report = report;
+        }
+
+        boolean hasHeader() {
+            return headerSeen;
+        }
+
+        @Override
+        public void onRow(StreamingSheetHandler.SheetRow row) {
+            if (!headerSeen) {
+                headerSeen = true;
+                plan = resolveHeader(row);
+                return;
+            }
+            if (plan == null) {
+                // The header could not be mapped; the problems are already reported
+                return;
+            }
+
+            if (parallelRows != null) {
+                parallelRows.add(row);
+            } else if (isParallelEnabled()) {
+                held.add(row);
+                if (isParallel(row.getRowIndex())) {
+                    parallelRows = new ParallelRows(plan, consumer, duplicates, report);
+                    held.forEach(parallelRows::add);
+                    held.clear();
                 }
+            } else {
+                convert(row);
             }
-            
-            // Parse data rows
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-                
-                try {
-                    Student student = new Student();
-                    
-                    // Log the row number for debugging
-                    System.out.println("Processing row " + (i+1));
-                    
-                    // Parse timestamp if available
-                    if (timestampIdx >= 0) {
-                        Cell cell = row.getCell(timestampIdx);
-                        if (cell != null) {
-                            try {
-                                if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-                                    student.setTimestamp(cell.getDateCellValue().toString());
-                                } else {
-                                    student.setTimestamp(getCellValueAsString(cell));
-                                }
-                            } catch (Exception e) {
-                                System.err.println("Error processing timestamp cell in row " + (i+1) + ": " + e.getMessage());
-                                student.setTimestamp("");
-                            }
-                        }
-                    }
-                    
-                    // Parse email
-                    Cell emailCell = row.getCell(emailIdx);
-                    if (emailCell == null || emailCell.getCellType() == CellType.BLANK) {
-                        continue; // Skip rows without email
-                    }
-                    student.setEmail(getCellValueAsString(emailCell));
-                    
-                    // Parse name
-                    Cell nameCell = row.getCell(nameIdx);
-                    if (nameCell == null || nameCell.getCellType() == CellType.BLANK) {
-                        continue; // Skip rows without name
-                    }
-                    student.setName(getCellValueAsString(nameCell));
-                    
-                    // Parse based on event type
-                    if (eventType == EventType.SQL_BOOTCAMP) {
-                        // Parse track for SQL Bootcamp
-                        if (trackIdx >= 0) {
-                            Cell trackCell = row.getCell(trackIdx);
-                            if (trackCell != null) {
-                                String track = getCellValueAsString(trackCell).trim();
-                                // Standardize track values
-                                if (track.toUpperCase().contains("SDET")) {
-                                    student.setTrack("SDET");
-                                } else if (track.toUpperCase().contains("DA")) {
-                                    student.setTrack("DA");
-                                } else if (track.toUpperCase().contains("SMPO")) {
-                                    student.setTrack("SMPO");
-                                } else if (track.toUpperCase().contains("DVLPR")) {
-                                    student.setTrack("DVLPR");
-                                } else {
-                                    student.setTrack(track);
-                                }
-                            } else {
-                                student.setTrack("Unknown");
-                            }
-                        }
-                        
-                        // Parse batch
-                        if (batchIdx >= 0) {
-                            Cell batchCell = row.getCell(batchIdx);
-                            if (batchCell != null) {
-                                student.setBatch(getCellValueAsString(batchCell));
-                            }
-                        }
-                        
-                        // Parse course type
-                        Cell courseTypeCell = row.getCell(courseTypeIdx);
-                        if (courseTypeCell != null) {
-                            String courseType = getCellValueAsString(courseTypeCell).trim();
-                            // Strictly standardize course type names - we only want the specific value "Advanced"
-                            if (courseType.equalsIgnoreCase("advanced")) {
-                                student.setCourseType("Advanced");
-                                System.out.println("Excel processing - Advanced student: " + student.getName());
-                            } else {
-                                // All others are "Full Course"
-                                student.setCourseType("Full Course");
-                                System.out.println("Excel processing - Full Course student: " + student.getName() + " - " + courseType);
-                            }
-                            
-                            // Print every student's course type for debugging
-                            System.out.println("COURSE TYPE CHECK: " + student.getName() + " => " + student.getCourseType());
-                        } else {
-                            continue; // Skip rows without course type
-                        }
-                    }
-                    else if (eventType == EventType.PYTHON_HACKATHON || eventType == EventType.SQL_HACKATHON) {
-                        // Parse track with batch number for SQL Hackathon
-                        if (trackIdx >= 0) {
-                            Cell trackWithBatchCell = row.getCell(trackIdx);
-                            if (trackWithBatchCell != null) {
-                                String trackWithBatch = getCellValueAsString(trackWithBatchCell).trim();
-                                
-                                // Extract track and batch from combined field
-                                if (trackWithBatch.toUpperCase().contains("SDET")) {
-                                    student.setTrack("SDET");
-                                    // Try to extract batch number
-                                    String batchStr = trackWithBatch.replaceAll("(?i).*?SDET\\s*", "").trim();
-                                    student.setBatch(batchStr);
-                                } else if (trackWithBatch.toUpperCase().contains("DA")) {
-                                    student.setTrack("DA");
-                                    // Try to extract batch number
-                                    String batchStr = trackWithBatch.replaceAll("(?i).*?DA\\s*", "").trim();
-                                    student.setBatch(batchStr);
-                                } else if (trackWithBatch.toUpperCase().contains("DVLPR")) {
-                                    student.setTrack("DVLPR");
-                                    // Try to extract batch number
-                                    String batchStr = trackWithBatch.replaceAll("(?i).*?DVLPR\\s*", "").trim();
-                                    student.setBatch(batchStr);
-                                } else if (trackWithBatch.toUpperCase().contains("SMPO")) {
-                                    student.setTrack("SMPO");
-                                    // Try to extract batch number
-                                    String batchStr = trackWithBatch.replaceAll("(?i).*?SMPO\\s*", "").trim();
-                                    student.setBatch(batchStr);
-                                } else {
-                                    student.setTrack(trackWithBatch);
-                                }
-                            } else {
-                                student.setTrack("Unknown");
-                            }
-                        }
-                        
-                        // Parse time zone
-                        if (timeZoneIdx >= 0) {
-                            Cell timeZoneCell = row.getCell(timeZoneIdx);
-                            if (timeZoneCell != null) {
-                                student.setTimeZone(getCellValueAsString(timeZoneCell));
-                            }
-                        }
-                        
-                        // Parse previous hackathon participation
-                        if (previousHackathonIdx >= 0) {
-                            Cell previousHackathonCell = row.getCell(previousHackathonIdx);
-                            if (previousHackathonCell != null) {
-                                String value = getCellValueAsString(previousHackathonCell);
-                                student.setPreviousHackathon(value);
-                                student.setPreviousHackathonParticipation(value);
-                            }
-                        }
-                        
-                        // Parse SQL expertise level
-                        if (sqlExpertiseIdx >= 0) {
-                            Cell sqlExpertiseCell = row.getCell(sqlExpertiseIdx);
-                            if (sqlExpertiseCell != null) {
-                                String expertise = getCellValueAsString(sqlExpertiseCell).trim();
-                                // Standardize expertise values
-                                if (expertise.toLowerCase().contains("beginner")) {
-                                    student.setSqlExpertiseLevel("Beginner");
-                                } else if (expertise.toLowerCase().contains("intermediate")) {
-                                    student.setSqlExpertiseLevel("Intermediate");
-                                } else if (expertise.toLowerCase().contains("advanced")) {
-                                    student.setSqlExpertiseLevel("Advanced");
-                                } else {
-                                    student.setSqlExpertiseLevel(expertise);
-                                }
-                                System.out.println("SQL Expertise for " + student.getName() + ": " + student.getSqlExpertiseLevel());
-                            }
-                        }
-                        
-                        // For hackathons, use event type as course type to maintain compatibility
-                        student.setCourseType(eventType.getDisplayName());
-                    }
-                    else if (eventType == EventType.SELENIUM_HACKATHON) {
-                        // Parse track with batch for Selenium Hackathons
-                        if (trackIdx >= 0) {
-                            Cell trackWithBatchCell = row.getCell(trackIdx);
-                            if (trackWithBatchCell != null) {
-                                String trackWithBatch = getCellValueAsString(trackWithBatchCell).trim();
-                                
-                                // Extract track and batch from combined field
-                                if (trackWithBatch.toUpperCase().contains("SDET")) {
-                                    student.setTrack("SDET");
-                                    // Try to extract batch number
-                                    String batchStr = trackWithBatch.replaceAll("(?i).*?SDET\\s*", "").trim();
-                                    student.setBatch(batchStr);
-                                } else if (trackWithBatch.toUpperCase().contains("DA")) {
-                                    student.setTrack("DA");
-                                    // Try to extract batch number
-                                    String batchStr = trackWithBatch.replaceAll("(?i).*?DA\\s*", "").trim();
-                                    student.setBatch(batchStr);
-                                } else {
-                                    student.setTrack(trackWithBatch);
-                                }
-                            } else {
-                                student.setTrack("Unknown");
-                            }
-                        }
-                        
-                        // Parse working status
-                        if (workingStatusIdx >= 0) {
-                            Cell workingCell = row.getCell(workingStatusIdx);
-                            if (workingCell != null) {
-                                student.setWorkingStatus(getCellValueAsString(workingCell));
-                            }
-                        }
-                        
-                        // Parse time zone
-                        if (timeZoneIdx >= 0) {
-                            Cell timeZoneCell = row.getCell(timeZoneIdx);
-                            if (timeZoneCell != null) {
-                                student.setTimeZone(getCellValueAsString(timeZoneCell));
-                            }
-                        }
-                        
-                        // Parse DSAlgo completion status
-                        if (dsAlgoCompletionIdx >= 0) {
-                            Cell dsAlgoCell = row.getCell(dsAlgoCompletionIdx);
-                            if (dsAlgoCell != null) {
-                                student.setDsAlgoCompletion(getCellValueAsString(dsAlgoCell));
-                            }
-                        }
-                        
-                        // Parse previous hackathon participation
-                        if (previousHackathonIdx >= 0) {
-                            Cell previousHackathonCell = row.getCell(previousHackathonIdx);
-                            if (previousHackathonCell != null) {
-                                String value = getCellValueAsString(previousHackathonCell);
-                                student.setPreviousHackathon(value);
-                                student.setPreviousHackathonParticipation(value); // Set the value to the new field as well
-                            }
-                        }
-                        
-                        // For hackathons, use event type as course type to maintain compatibility
-                        student.setCourseType(eventType.getDisplayName());
-                    }
-                    else if (eventType == EventType.PHASE1_API_HACKATHON || eventType == EventType.PHASE2_API_HACKATHON) {
-                        // Parse track
-                        if (trackIdx >= 0) {
-                            Cell trackCell = row.getCell(trackIdx);
-                            if (trackCell != null) {
-                                String track = getCellValueAsString(trackCell).trim();
-                                // Standardize track values
-                                if (track.toUpperCase().contains("SDET")) {
-                                    student.setTrack("SDET");
-                                } else if (track.toUpperCase().contains("DA")) {
-                                    student.setTrack("DA");
-                                } else if (track.toUpperCase().contains("DVLPR")) {
-                                    student.setTrack("DVLPR");
-                                } else {
-                                    student.setTrack(track);
-                                }
-                            } else {
-                                student.setTrack("Unknown");
-                            }
-                        }
-                        
-                        // Parse batch 
-                        if (batchIdx >= 0) {
-                            Cell batchCell = row.getCell(batchIdx);
-                            if (batchCell != null) {
-                                student.setBatch(getCellValueAsString(batchCell));
-                            }
-                        }
-                        
-                        // Parse working status
-                        if (workingStatusIdx >= 0) {
-                            Cell workingCell = row.getCell(workingStatusIdx);
-                            if (workingCell != null) {
-                                student.setWorkingStatus(getCellValueAsString(workingCell));
-                            }
-                        }
-                        
-                        // Parse time zone
-                        if (timeZoneIdx >= 0) {
-                            Cell timeZoneCell = row.getCell(timeZoneIdx);
-                            if (timeZoneCell != null) {
-                                student.setTimeZone(getCellValueAsString(timeZoneCell));
-                            }
-                        }
-                        
-                        // Parse DSAlgo completion status
-                        if (dsAlgoCompletionIdx >= 0) {
-                            Cell dsAlgoCell = row.getCell(dsAlgoCompletionIdx);
-                            if (dsAlgoCell != null) {
-                                student.setDsAlgoCompletion(getCellValueAsString(dsAlgoCell));
-                            }
-                        }
-                        
-                        // Parse API bootcamp completion status - this would be in column index 8 based on your format
-                        int apiBootcampIdx = findColumnIndex(headerRow, "Have you completed USER API bootcamp", "API bootcamp");
-                        if (apiBootcampIdx >= 0) {
-                            Cell apiBootcampCell = row.getCell(apiBootcampIdx);
-                            if (apiBootcampCell != null) {
-                                student.setApiBootcampCompletion(getCellValueAsString(apiBootcampCell));
-                            }
-                        }
-                        
-                        // Parse previous API hackathon participation - this would be in column index 9 based on your format
-                        int previousApiHackathonIdx = findColumnIndex(headerRow, "Have you participated in any API Hackathon", "API Hackathon");
-                        if (previousApiHackathonIdx >= 0) {
-                            Cell previousApiHackathonCell = row.getCell(previousApiHackathonIdx);
-                            if (previousApiHackathonCell != null) {
-                                String value = getCellValueAsString(previousApiHackathonCell);
-                                student.setPreviousHackathon(value);
-                                student.setPreviousHackathonParticipation(value); // Set the value to the new field as well
-                            }
-                        }
-                        
-                        // For hackathons, use event type as course type to maintain compatibility
-                        student.setCourseType(eventType.getDisplayName());
-                    } else if (eventType == EventType.RECIPE_SCRAPING_HACKATHON) {
-                        // Parse track with batch for Recipe Scraping Hackathon (same format as Selenium Hackathon)
-                        if (trackIdx >= 0) {
-                            Cell trackWithBatchCell = row.getCell(trackIdx);
-                            if (trackWithBatchCell != null) {
-                                String trackWithBatch = getCellValueAsString(trackWithBatchCell).trim();
-                                
-                                // Extract track and batch from combined field
-                                if (trackWithBatch.toUpperCase().contains("SDET")) {
-                                    student.setTrack("SDET");
-                                    // Try to extract batch number
-                                    String batchStr = trackWithBatch.replaceAll("(?i).*?SDET\\s*", "").trim();
-                                    student.setBatch(batchStr);
-                                } else if (trackWithBatch.toUpperCase().contains("DA")) {
-                                    student.setTrack("DA");
-                                    // Try to extract batch number
-                                    String batchStr = trackWithBatch.replaceAll("(?i).*?DA\\s*", "").trim();
-                                    student.setBatch(batchStr);
-                                } else {
-                                    student.setTrack(trackWithBatch);
-                                }
-                            } else {
-                                student.setTrack("Unknown");
-                            }
-                        }
-                        
-                        // Parse working status
-                        if (workingStatusIdx >= 0) {
-                            Cell workingCell = row.getCell(workingStatusIdx);
-                            if (workingCell != null) {
-                                student.setWorkingStatus(getCellValueAsString(workingCell));
-                            }
-                        }
-                        
-                        // Parse time zone
-                        if (timeZoneIdx >= 0) {
-                            Cell timeZoneCell = row.getCell(timeZoneIdx);
-                            if (timeZoneCell != null) {
-                                student.setTimeZone(getCellValueAsString(timeZoneCell));
-                            }
-                        }
-                        
-                        // Parse DSAlgo completion status
-                        if (dsAlgoCompletionIdx >= 0) {
-                            Cell dsAlgoCell = row.getCell(dsAlgoCompletionIdx);
-                            if (dsAlgoCell != null) {
-                                student.setDsAlgoCompletion(getCellValueAsString(dsAlgoCell));
-                            }
-                        }
-                        
-                        // Parse previous scraping hackathon participation
-                        if (previousHackathonIdx >= 0) {
-                            Cell previousHackathonCell = row.getCell(previousHackathonIdx);
-                            if (previousHackathonCell != null) {
-                                String value = getCellValueAsString(previousHackathonCell);
-                                student.setPreviousHackathon(value);
-                                student.setPreviousHackathonParticipation(value); // Set the value to the new field as well
-                            }
-                        }
-                        
-                        // For hackathons, use event type as course type to maintain compatibility
-                        student.setCourseType(eventType.getDisplayName());
+        }
+
+        /**
+         * Converts the rows still held or in flight once the whole sheet has been read
+         */
+        void finish() {
+            if (parallelRows != null) {
+                parallelRows.finish();
+            } else {
+                held.forEach(this::convert);
+                held.clear();
+            }
+        }
+
+        private void convert(StreamingSheetHandler.SheetRow row) {
+            Student student = convertRow(row, plan, report, values);
+            if (student != null) {
+                consumer.accept(student);
+                duplicates.check(student, row.getRowIndex(), report);
+            }
+        }
+
+        private ColumnPlan resolveHeader(StreamingSheetHandler.SheetRow headerRow) {
+            if (headerRow.getRowIndex() != 0) {
+                report.add(RosterIssue.file(RosterIssue.Kind.MISSING_HEADER, NO_HEADER));
+                return null;
+            }
+
+            List<String> headers = new ArrayList<>();
+            for (int i = 0; i < headerRow.getLastCellNum(); i++) {
+                StreamingSheetHandler.SheetCell cell = headerRow.getCell(i);
+                if (cell != null && cell.isText()) {
+                    headers.add(cell.getValue().trim().toLowerCase());
+                } else {
+                    if (cell != null) {
+                        report.add(RosterIssue.cell(RosterIssue.Kind.HEADER_FORMULA, HEADER_NOT_TEXT,
+                                headerRow.getSheetName(), cell.getReference(), cell.getFormula(),
+                                cell.getRowIndex(), cell.getColumnIndex()));
                     }
-                    
-                    students.add(student);
-                } catch (Exception e) {
-                    log.warn("Error parsing row {}: {}", i, e.getMessage());
-                    // Continue with next row
+                    headers.add(null);
                 }
             }
+
+            return report.isFatal() ? null : ColumnPlan.forHeaders(headers, eventType, report);
+        }
+    }
+
+    /**
+     * Throws the first problem that prevented reading the roster, and logs the skipped rows
+     */
+    private void checkReport(ValidationReport report) throws Exception {
+        RosterIssue fatal = report.firstFatalIssue();
+        if (fatal != null) {
+            if (fatal.getKind() == RosterIssue.Kind.HEADER_FORMULA) {
+                throw new ExcelFormulaException(fatal.getMessage(), fatal.getSheetName(), fatal.getCellReference(),
+                        fatal.getFormula(), fatal.getRowIndex(), fatal.getColumnIndex());
+            }
+            throw new Exception(fatal.getMessage());
+        }
+
+        for (RosterIssue issue : report.getIssues()) {
+            log.warn("Skipped {}", issue);
+        }
+        if (report.isTruncated()) {
+            log.warn("Skipped {} more rows with problems", report.getIssueCount() - report.getIssues().size());
         }
-        
-        return students;
     }
-    
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return "";
+
+    /**
+     * Converts one data row to a student.
+     *
+     * @param row Cell values of the row
+     * @param plan Column mapping of the roster
+     * @param i 0-based row index, used for logging
+     * @param report Receives the row's problems if it cannot be converted
+     * @param values Category values already read from the roster, shared by the students of one parse
+     * @return The student, or null if the row should be skipped
+     */
+    private Student toStudent(ColumnPlan.RowCells row, ColumnPlan plan, int i, ValidationReport report,
+                              Map<String, String> values) {
+        try {
+            Student student = plan.read(row, report);
+            if (student == null) {
+                metrics.rowRejected();
+                return null;
+            }
+            metrics.rowAccepted();
+            return compact(student, values);
+        } catch (RuntimeException e) {
+            report.add(RosterIssue.row(RosterIssue.Kind.INVALID_ROW, "Error parsing row: " + e.getMessage(), i));
+            metrics.rowRejected();
+            return null;
+        }
+    }
+
+    /**
+     * Shares the few distinct category values between the students of a roster and derives
+     * the typed profile team formation works on, so it is not computed during formation.
+     * The values are shared through the parse's own map rather than the JVM string table,
+     * so free text from an upload is not kept once the roster has been read.
+     */
+    private static Student compact(Student student, Map<String, String> values) {
+        student.setTrack(share(values, student.getTrack()));
+        student.setBatch(share(values, student.getBatch()));
+        student.setCourseType(share(values, student.getCourseType()));
+        student.setWorkingStatus(share(values, student.getWorkingStatus()));
+        student.setTimeZone(share(values, student.getTimeZone()));
+        student.setDsAlgoCompletion(share(values, student.getDsAlgoCompletion()));
+        student.setPreviousHackathon(share(values, student.getPreviousHackathon()));
+        student.setPreviousHackathonParticipation(share(values, student.getPreviousHackathonParticipation()));
+        student.setApiBootcampCompletion(share(values, student.getApiBootcampCompletion()));
+        student.setSqlExpertiseLevel(share(values, student.getSqlExpertiseLevel()));
+        student.getProfile();
+        return student;
+    }
+
+    private static String share(Map<String, String> values, String value) {
+        if (value == null) {
+            return null;
         }
-        
-        switch (cell.getCellType()) {
+        String shared = values.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+
+
+    /**
+     * Whether getStringCellValue can read the cell, i.e. it holds text, is blank or is a
+     * formula with a text result
+     */
+    private static boolean isText(Cell cell) {
+        CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+        return type == CellType.STRING || type == CellType.BLANK;
+    }
+
+    private static String formulaOf(Cell cell) {
+        return cell.getCellType() == CellType.FORMULA ? cell.getCellFormula() : "";
+    }
+
+    /**
+     * @return The cell's value as text, or null (with the problem added to the report) if it cannot be read
+     */
+    private String getCellValueAsString(Cell cell, ValidationReport report) {
+        if (cell.getCellType() != CellType.FORMULA) {
+            return valueOf(cell, cell.getCellType());
+        }
+        try {
+            return formulaValue(cell);
+        } catch (RuntimeException e) {
+            // POI could not evaluate the cached result; report the cell with its location
+            report.add(unreadableCell(cell));
+            return null;
+        }
+    }
+
+    /**
+     * Value of a formula cell from its cached result, or the formula itself if the result is an error
+     * @throws RuntimeException if POI cannot read the cached result
+     */
+    private static String formulaValue(Cell cell) {
+        CellType formulaResultType = cell.getCachedFormulaResultType();
+        if (formulaResultType == CellType.NUMERIC || formulaResultType == CellType.STRING
+                || formulaResultType == CellType.BOOLEAN) {
+            return valueOf(cell, formulaResultType);
+        }
+        // For other types or if there's an error in the formula
+        // Just get the formula itself
+        return cell.getCellFormula();
+    }
+
+    /**
+     * Value of a cell, or of a formula's cached result, of the given type
+     */
+    private static String valueOf(Cell cell, CellType type) {
+        switch (type) {
             case STRING:
                 return cell.getStringCellValue();
             case NUMERIC:
                 if (DateUtil.isCellDateFormatted(cell)) {
                     return cell.getDateCellValue().toString();
-                } else {
-                    // Convert numeric to string without decimal for integers
-                    double value = cell.getNumericCellValue();
-                    if (value == Math.floor(value)) {
-                        return String.valueOf((int) value);
-                    } else {
-                        return String.valueOf(value);
-                    }
                 }
+                // Convert numeric to string without decimal for integers
+                double value = cell.getNumericCellValue();
+                if (value == Math.floor(value)) {
+                    return String.valueOf((int) value);
+                }
+                return String.valueOf(value);
             case BOOLEAN:
                 return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                try {
-                    // First check the cached formula result type
-                    CellType formulaResultType = cell.getCachedFormulaResultType();
-                    
-                    if (formulaResultType == CellType.NUMERIC) {
-                        // If the formula result is numeric, handle it as a numeric value
-                        if (DateUtil.isCellDateFormatted(cell)) {
-                            return cell.getDateCellValue().toString();
-                        } else {
-                            // Convert numeric to string without decimal for integers
-                            double value = cell.getNumericCellValue();
-                            if (value == Math.floor(value)) {
-                                return String.valueOf((int) value);
-                            } else {
-                                return String.valueOf(value);
-                            }
-                        }
-                    } else if (formulaResultType == CellType.STRING) {
-                        // If the formula result is string, get it as string
-                        return cell.getStringCellValue();
-                    } else if (formulaResultType == CellType.BOOLEAN) {
-                        // If the formula result is boolean, get it as boolean
-                        return String.valueOf(cell.getBooleanCellValue());
-                    } else {
-                        // For other types or if there's an error in the formula
-                        // Just get the formula itself
-                        return cell.getCellFormula();
-                    }
-                } catch (Exception e) {
-                    // Get cell details for better error reporting
-                    String cellRef = cell.getAddress().formatAsString();
-                    String sheetName = cell.getSheet().getSheetName();
-                    int rowIndex = cell.getRowIndex();
-                    int columnIndex = cell.getColumnIndex();
-                    
-                    String formula = "";
-                    try {
-                        formula = cell.getCellFormula();
-                    } catch (Exception ignored) {}
-                    
-                    // Log the error with detailed information
-                    System.err.println("Error processing formula cell at " + sheetName + "!" + cellRef + 
-                                       " (Row: " + (rowIndex+1) + ", Column: " + getColumnName(columnIndex) + ")" +
-                                       " with formula: " + formula + ". Error: " + e.getMessage());
-                    
-                    // Create custom exception with detailed cell information
-                    ExcelFormulaException excelError = new ExcelFormulaException(
-                        "Cannot get a STRING value from a NUMERIC formula cell",
-                        sheetName,
-                        cellRef,
-                        formula,
-                        rowIndex,
-                        columnIndex
-                    );
-                    
-                    // Log the detailed error message
-                    System.err.println("EXCEL_FORMULA_ERROR: " + excelError.getMessage());
-                    
-                    // Throw the exception with the detailed message
-                    throw excelError;
-                }
             default:
                 return "";
         }
     }
-    
-    /**
-     * Helper method to find the index of a column based on header text.
-     * Searches for column headers containing the specified primary and alternative texts.
-     * 
-     * @param headerRow The header row to search in
-     * @param primaryText The primary text to look for in column headers
-     * @param alternativeText Alternative text to look for if primary text not found
-     * @return The index of the matching column, or -1 if not found
-     */
-    private int findColumnIndex(Row headerRow, String primaryText, String alternativeText) {
-        if (headerRow == null) {
-            return -1;
-        }
-        
-        for (int i = 0; i < headerRow.getLastCellNum(); i++) {
-            Cell cell = headerRow.getCell(i);
-            if (cell != null) {
-                String headerText = getCellValueAsString(cell).trim();
-                if (headerText.toLowerCase().contains(primaryText.toLowerCase()) || 
-                    headerText.toLowerCase().contains(alternativeText.toLowerCase())) {
-                    return i;
-                }
-            }
+
+    private static RosterIssue unreadableCell(Cell cell) {
+        return RosterIssue.cell(RosterIssue.Kind.UNREADABLE_CELL, CELL_NOT_TEXT,
+                cell.getSheet().getSheetName(), cell.getAddress().formatAsString(), formulaOf(cell),
+                cell.getRowIndex(), cell.getColumnIndex());
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
         }
-        
-        return -1;
+        return pool;
     }
-    
-    /**
-     * Converts a 0-based column index to Excel column name (A, B, C, ..., Z, AA, AB, etc.)
-     */
-    private String getColumnName(int columnIndex) {
-        StringBuilder columnName = new StringBuilder();
-        
-        while (columnIndex >= 0) {
-            int remainder = columnIndex % 26;
-            columnName.insert(0, (char) (remainder + 'A'));
-            columnIndex = (columnIndex / 26) - 1;
-        }
-        
-        return columnName.toString();
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
     }
 }
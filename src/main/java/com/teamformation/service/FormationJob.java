@@ -0,0 +1,112 @@
+package com.teamformation.service;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.ValidationReport;
+import lombok.Getter;
+
+/**
+ * An uploaded roster being parsed and formed into teams in the background.
+ * Progress fields are written by the worker thread and read by status polls.
+ */
+@Getter
+public class FormationJob {
+
+    public enum Status {
+        QUEUED, PARSING, FORMING, COMPLETED, FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    private final String id;
+    private final EventType eventType;
+    private final String filename;
+
+    /**
+     * Formation seed requested with the upload, null for a random one
+     */
+    private final Long seed;
+
+    /**
+     * Session that submitted the job; only it may see the job's progress and result
+     */
+    private final String owner;
+
+    private final long createdAt = System.currentTimeMillis();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile int rowsParsed;
+    private volatile int teamsFormed;
+    private volatile long finishedAt;
+
+    /**
+     * ID of the formed teams in the result store, once completed
+     */
+    private volatile String resultId;
+
+    /**
+     * Whether the result was reused from an earlier upload of the same roster
+     */
+    private volatile boolean cached;
+
+    /**
+     * Problems found in the roster, once parsed
+     */
+    private volatile ValidationReport report;
+
+    private volatile String errorMessage;
+    private volatile Exception failure;
+
+    public FormationJob(String id, EventType eventType, String filename, Long seed, String owner) {
+        this.id = id;
+        this.eventType = eventType;
+        this.filename = filename;
+        this.seed = seed;
+        this.owner = owner;
+    }
+
+    void startParsing() {
+        status = Status.PARSING;
+    }
+
+    // Only the worker thread updates the counts
+    void rowParsed() {
+        rowsParsed++;
+    }
+
+    void rowsParsed(int rows) {
+        rowsParsed = rows;
+    }
+
+    void startForming() {
+        status = Status.FORMING;
+    }
+
+    void complete(String resultId, int teamsFormed) {
+        this.resultId = resultId;
+        this.teamsFormed = teamsFormed;
+        finish(Status.COMPLETED);
+    }
+
+    void completeFromCache(String resultId, int rows, int teamsFormed) {
+        this.cached = true;
+        this.rowsParsed = rows;
+        complete(resultId, teamsFormed);
+    }
+
+    void parsed(ValidationReport report) {
+        this.report = report;
+    }
+
+    void fail(String errorMessage, Exception failure) {
+        this.errorMessage = errorMessage;
+        this.failure = failure;
+        finish(Status.FAILED);
+    }
+
+    private void finish(Status status) {
+        finishedAt = System.currentTimeMillis();
+        this.status = status;
+    }
+}
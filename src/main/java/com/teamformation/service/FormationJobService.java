@@ -0,0 +1,269 @@
+package com.teamformation.service;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.Student;
+import com.teamformation.model.TeamFormationResult;
+import com.teamformation.model.ValidationReport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs upload parsing and team formation off the request thread.
+ * Jobs run on a bounded pool with a bounded queue; when both are full, new uploads are rejected
+ * rather than piling up. Finished jobs are kept until their result is claimed or the retention period passes.
+ */
+@Slf4j
+@Service
+public class FormationJobService {
+
+    private final ExcelService excelService;
+    private final TeamFormationService teamFormationService;
+    private final ResultStore resultStore;
+    private final FormationResultCache resultCache;
+    private final ThreadPoolExecutor executor;
+    private final long retentionMillis;
+    private final Map<String, FormationJob> jobs = new ConcurrentHashMap<>();
+
+    public FormationJobService(ExcelService excelService,
+                               TeamFormationService teamFormationService,
+                               ResultStore resultStore,
+                               FormationResultCache resultCache,
+                               @Value("${teamformation.jobs.threads:2}") int threads,
+                               @Value("${teamformation.jobs.queue-capacity:20}") int queueCapacity,
+                               @Value("${teamformation.jobs.retention-minutes:30}") long retentionMinutes) {
+        this.excelService = excelService;
+        this.teamFormationService = teamFormationService;
+        this.resultStore = resultStore;
+        this.resultCache = resultCache;
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "formation-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Copies the upload aside and queues it for parsing and team formation.
+     * If the same content was formed for the same event and seed before, the job completes
+     * immediately with a copy of that result instead.
+     *
+     * @param seed Formation seed, null for a random one
+     * @param owner Session that may poll the job
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public FormationJob submit(MultipartFile file, EventType eventType, Long seed, String owner) throws IOException {
+        evictExpiredJobs();
+
+        String filename = file.getOriginalFilename();
+        RosterFormat format = RosterFormat.of(filename);
+        if (format == null) {
+            throw new IllegalArgumentException("Unsupported file type: " + filename);
+        }
+
+        // The multipart temp file is removed when the request ends, so keep our own copy,
+        // hashing the content on the way
+        Path upload = Files.createTempFile("upload-", format.getExtension());
+        String contentHash;
+        try (InputStream in = file.getInputStream()) {
+            contentHash = copyHashed(in, upload);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+
+        FormationJob job = new FormationJob(UUID.randomUUID().toString(), eventType, filename, seed, owner);
+        FormationResultCache.Key cacheKey = new FormationResultCache.Key(contentHash, eventType, seed);
+
+        FormationResultCache.CachedFormation cached = resultCache.get(cacheKey);
+        if (cached != null) {
+            Files.deleteIfExists(upload);
+            TeamFormationResult result = cached.getResult();
+            job.parsed(copyOf(cached.getReport()));
+            job.completeFromCache(resultStore.put(result), result.getTotalStudents(), result.getTeams().size());
+            jobs.put(job.getId(), job);
+            log.info("Reused cached result for {} ({}) in job {}", filename, eventType, job.getId());
+            return job;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, upload, format, cacheKey));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+
+        log.info("Queued job {} for {} ({})", job.getId(), filename, eventType);
+        return job;
+    }
+
+    /**
+     * Parses a roster and forms teams on the calling thread, reusing the cached result for content
+     * that was formed for the same event and seed before. Problems found in the roster are added to the report.
+     *
+     * @param content Roster file contents; not closed
+     * @param seed Formation seed, null for a random one
+     * @return The result, or null if the roster could not be read or has no valid students
+     */
+    public TeamFormationResult form(InputStream content, RosterFormat format, EventType eventType, Long seed,
+                                    ValidationReport report) throws Exception {
+        Path upload = Files.createTempFile("upload-", format.getExtension());
+        try {
+            FormationResultCache.Key cacheKey = new FormationResultCache.Key(copyHashed(content, upload), eventType, seed);
+            FormationResultCache.CachedFormation cached = resultCache.get(cacheKey);
+            if (cached != null) {
+                log.info("Reused cached result for {} roster ({})", format, eventType);
+                report.addAll(cached.getReport());
+                return cached.getResult();
+            }
+
+            List<Student> students = new ArrayList<>();
+            try (InputStream in = Files.newInputStream(upload)) {
+                excelService.parse(in, format, eventType, students::add, report);
+            }
+            if (report.isFatal() || students.isEmpty()) {
+                return null;
+            }
+
+            TeamFormationResult result = teamFormationService.formTeams(students, eventType, seed);
+            resultCache.put(cacheKey, result, copyOf(report));
+            return result;
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    /**
+     * @return The job, or null if it does not exist, has expired or belongs to another session
+     */
+    public FormationJob getJob(String id, String owner) {
+        FormationJob job = jobs.get(id);
+        return job != null && job.getOwner().equals(owner) ? job : null;
+    }
+
+    /**
+     * Forgets a finished job once its outcome has been handed to the client
+     */
+    public void remove(String id) {
+        jobs.remove(id);
+    }
+
+    private void run(FormationJob job, Path upload, RosterFormat format, FormationResultCache.Key cacheKey) {
+        try (InputStream in = Files.newInputStream(upload)) {
+            job.startParsing();
+
+            // Problems are collected, so the whole file can be reported at once
+            ValidationReport report = new ValidationReport();
+            List<Student> students = new ArrayList<>();
+            excelService.parse(in, format, job.getEventType(), student -> {
+                students.add(student);
+                job.rowParsed();
+            }, report);
+
+            job.parsed(report);
+
+            if (report.isFatal()) {
+                job.fail("The file could not be read: " + problems(report.getIssueCount()) + " found", null);
+                return;
+            }
+            if (students.isEmpty()) {
+                job.fail("No valid data found in the uploaded file", null);
+                return;
+            }
+
+            job.startForming();
+            TeamFormationResult result = teamFormationService.formTeams(students, job.getEventType(), job.getSeed());
+            resultCache.put(cacheKey, result, copyOf(report));
+            job.complete(resultStore.put(result), result.getTeams().size());
+            log.info("Job {} formed {} teams from {} students", job.getId(), job.getTeamsFormed(), students.size());
+        } catch (Exception e) {
+            log.error("Job {} failed", job.getId(), e);
+            job.fail("Error processing file: " + e.getMessage(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                log.warn("Could not delete upload {}: {}", upload, e.getMessage());
+            }
+        }
+    }
+
+    private void evictExpiredJobs() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> {
+            if (!job.getStatus().isFinished() || job.getFinishedAt() >= cutoff) {
+                return false;
+            }
+            // Never claimed, so nothing else refers to its result
+            if (job.getResultId() != null) {
+                resultStore.remove(job.getResultId());
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Copy of the report, so the cached problems are never shared with a caller that may add to them
+     */
+    private static ValidationReport copyOf(ValidationReport report) {
+        ValidationReport copy = new ValidationReport(report.getMaxIssues());
+        copy.addAll(report);
+        return copy;
+    }
+
+    private static String problems(int count) {
+        return count == 1 ? "1 problem" : count + " problems";
+    }
+
+    /**
+     * Copies the content to the file
+     * @return Digest of the content, used as its cache key
+     */
+    private static String copyHashed(InputStream content, Path target) throws IOException {
+        DigestInputStream in = new DigestInputStream(content, sha256());
+        Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(in.getMessageDigest().digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
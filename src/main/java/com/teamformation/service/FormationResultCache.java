@@ -0,0 +1,91 @@
+package com.teamformation.service;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.TeamFormationResult;
+import com.teamformation.model.ValidationReport;
+import lombok.Getter;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formation results by uploaded content, so uploading the same roster again for the same event
+ * (and seed) reuses the earlier result instead of parsing and forming teams again. The problems
+ * found in the roster are kept with the result, so a reuse reports them as the first upload did.
+ * Bounded by entry count and estimated memory; the least recently used results go first.
+ */
+@Component
+public class FormationResultCache {
+
+    private final WeightedLruCache<Key, CachedFormation> results;
+    private final boolean enabled;
+
+    public FormationResultCache(@Value("${teamformation.cache.max-entries:20}") int maxEntries,
+                                @Value("${teamformation.cache.max-memory-mb:128}") long maxMemoryMb,
+                                @Value("${teamformation.cache.ttl-minutes:30}") long ttlMinutes) {
+        this.enabled = maxEntries > 0;
+        this.results = new WeightedLruCache<>(maxEntries, maxMemoryMb * 1024 * 1024,
+                TimeUnit.MINUTES.toMillis(ttlMinutes), cached -> InMemoryResultStore.estimateBytes(cached.getResult()));
+    }
+
+    /**
+     * @return The cached result with its roster problems, or null if there is none
+     */
+    public CachedFormation get(Key key) {
+        return enabled ? results.get(key) : null;
+    }
+
+    /**
+     * @param report Problems found in the roster the result was formed from
+     */
+    public void put(Key key, TeamFormationResult result, ValidationReport report) {
+        if (enabled) {
+            results.put(key, new CachedFormation(result, report));
+        }
+    }
+
+    /**
+     * Number of cached results
+     */
+    public int size() {
+        return results.size();
+    }
+
+    /**
+     * Identity of a formation request: the upload's content digest, the event and the requested seed
+     */
+    @EqualsAndHashCode
+    @ToString
+    public static final class Key {
+        private final String contentHash;
+        private final EventType eventType;
+
+        /**
+         * Seed requested with the upload, null for none
+         */
+        private final Long seed;
+
+        public Key(String contentHash, EventType eventType, Long seed) {
+            this.contentHash = contentHash;
+            this.eventType = eventType;
+            this.seed = seed;
+        }
+    }
+
+    /**
+     * A cached result and the problems found in its roster
+     */
+    @Getter
+    public static final class CachedFormation {
+        private final TeamFormationResult result;
+        private final ValidationReport report;
+
+        CachedFormation(TeamFormationResult result, ValidationReport report) {
+            this.result = result;
+            this.report = report;
+        }
+    }
+}
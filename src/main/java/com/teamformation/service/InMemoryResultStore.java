@@ -0,0 +1,66 @@
+package com.teamformation.service;
+
+import com.teamformation.model.Team;
+import com.teamformation.model.TeamFormationResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result store on the heap with least-recently-used eviction.
+ * Results expire after the time-to-live, and the least recently viewed results are dropped once
+ * either the entry limit or the estimated memory limit is exceeded. The newest result is always kept.
+ */
+@Component
+@ConditionalOnProperty(name = "teamformation.results.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryResultStore implements ResultStore {
+
+    // Rough retained size of a student with its strings, and of a team with its member list
+    static final long STUDENT_BYTES = 1024;
+    static final long TEAM_BYTES = 256;
+
+    private final WeightedLruCache<String, TeamFormationResult> results;
+
+    public InMemoryResultStore(@Value("${teamformation.results.max-entries:100}") int maxEntries,
+                               @Value("${teamformation.results.max-memory-mb:256}") long maxMemoryMb,
+                               @Value("${teamformation.results.ttl-minutes:60}") long ttlMinutes) {
+        this.results = new WeightedLruCache<>(maxEntries, maxMemoryMb * 1024 * 1024,
+                TimeUnit.MINUTES.toMillis(ttlMinutes), InMemoryResultStore::estimateBytes);
+    }
+
+    @Override
+    public String put(TeamFormationResult result) {
+        String id = UUID.randomUUID().toString();
+        results.put(id, result);
+        return id;
+    }
+
+    @Override
+    public TeamFormationResult get(String id) {
+        return results.get(id);
+    }
+
+    @Override
+    public void remove(String id) {
+        results.remove(id);
+    }
+
+    @Override
+    public int size() {
+        return results.size();
+    }
+
+    static long estimateBytes(TeamFormationResult result) {
+        long teams = result.getTeams() != null ? result.getTeams().size() : 0;
+        long students = result.getUnassignedStudents() != null ? result.getUnassignedStudents().size() : 0;
+        if (result.getTeams() != null) {
+            for (Team team : result.getTeams()) {
+                students += team.getSize();
+            }
+        }
+        return teams * TEAM_BYTES + students * STUDENT_BYTES;
+    }
+}
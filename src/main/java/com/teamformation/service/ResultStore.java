@@ -0,0 +1,28 @@
+package com.teamformation.service;
+
+import com.teamformation.model.TeamFormationResult;
+
+/**
+ * Keeps formation results outside the HTTP session, which only holds the result ID.
+ * Stores may evict results at any time, so callers must handle a missing result.
+ */
+public interface ResultStore {
+
+    /**
+     * Stores the result
+     * @return ID to look the result up by
+     */
+    String put(TeamFormationResult result);
+
+    /**
+     * @return The result, or null if it is unknown, expired or evicted
+     */
+    TeamFormationResult get(String id);
+
+    void remove(String id);
+
+    /**
+     * Number of results currently stored, including expired ones not yet evicted
+     */
+    int size();
+}
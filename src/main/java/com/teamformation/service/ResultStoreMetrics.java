@@ -0,0 +1,31 @@
+package com.teamformation.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges of the stored and cached formation results, read whenever metrics are scraped
+ */
+@Component
+public class ResultStoreMetrics implements MeterBinder {
+
+    private final ResultStore resultStore;
+    private final FormationResultCache resultCache;
+
+    public ResultStoreMetrics(ResultStore resultStore, FormationResultCache resultCache) {
+        this.resultStore = resultStore;
+        this.resultCache = resultCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("teamformation.results.stored", resultStore, ResultStore::size)
+                .description("Formation results kept for viewing and download")
+                .register(registry);
+        Gauge.builder("teamformation.results.cached", resultCache, FormationResultCache::size)
+                .description("Formation results cached for repeated uploads")
+                .register(registry);
+    }
+}
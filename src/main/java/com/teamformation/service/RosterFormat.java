@@ -0,0 +1,39 @@
+package com.teamformation.service;
+
+import java.util.Locale;
+
+/**
+ * File formats a roster can be uploaded in, recognized by the file name extension
+ */
+public enum RosterFormat {
+    XLSX(".xlsx"),
+    XLS(".xls"),
+    CSV(".csv"),
+    TSV(".tsv");
+
+    private final String extension;
+
+    RosterFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @return The format of the file, or null if it is not a supported roster format
+     */
+    public static RosterFormat of(String filename) {
+        if (filename == null) {
+            return null;
+        }
+        String lowerFilename = filename.toLowerCase(Locale.ROOT);
+        for (RosterFormat format : values()) {
+            if (lowerFilename.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,288 @@
+package com.teamformation.service;
+
+import com.teamformation.model.RosterIssue;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SAX handler for a single worksheet part of an .xlsx package.
+ * Cells are converted to the same string values that ExcelService produces for the
+ * in-memory workbook, and each completed row is handed to the listener before the
+ * next row is read, so only one row is held in memory at a time.
+ */
+class StreamingSheetHandler extends DefaultHandler {
+
+    /**
+     * Receives each worksheet row as soon as its closing tag has been read
+     */
+    interface RowListener {
+        void onRow(SheetRow row);
+    }
+
+    private final SharedStrings sharedStrings;
+    private final StylesTable styles;
+    private final String sheetName;
+    private final RowListener listener;
+
+    private SheetRow currentRow;
+    private int lastRowIndex = -1;
+    private int lastColumnIndex = -1;
+
+    // State for the cell currently being read
+    private String cellReference;
+    private int cellRowIndex;
+    private int cellColumnIndex;
+    private String cellType;
+    private String cellStyle;
+    private boolean readingValue;
+    private boolean readingFormula;
+    private final StringBuilder value = new StringBuilder();
+    private final StringBuilder formula = new StringBuilder();
+    private boolean hasFormula;
+
+    StreamingSheetHandler(SharedStrings sharedStrings, StylesTable styles, String sheetName, RowListener listener) {
+        this.sharedStrings = sharedStrings;
+        this.styles = styles;
+        this.sheetName = sheetName;
+        this.listener = listener;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        String name = localName != null && !localName.isEmpty() ? localName : qName;
+
+        if ("row".equals(name)) {
+            String r = attributes.getValue("r");
+            int rowIndex = r != null ? Integer.parseInt(r) - 1 : lastRowIndex + 1;
+            currentRow = new SheetRow(sheetName, rowIndex);
+            lastRowIndex = rowIndex;
+            lastColumnIndex = -1;
+        } else if ("c".equals(name)) {
+            String r = attributes.getValue("r");
+            if (r != null) {
+                CellReference ref = new CellReference(r);
+                cellColumnIndex = ref.getCol();
+                cellRowIndex = ref.getRow();
+                cellReference = r;
+            } else {
+                cellColumnIndex = lastColumnIndex + 1;
+                cellRowIndex = lastRowIndex;
+                cellReference = new CellReference(cellRowIndex, cellColumnIndex).formatAsString();
+            }
+            lastColumnIndex = cellColumnIndex;
+            cellType = attributes.getValue("t");
+            cellStyle = attributes.getValue("s");
+            hasFormula = false;
+            value.setLength(0);
+            formula.setLength(0);
+        } else if ("v".equals(name) || "t".equals(name)) {
+            // <t> only carries cell text inside an inline string (<is>) element
+            readingValue = true;
+        } else if ("f".equals(name)) {
+            readingFormula = true;
+            hasFormula = true;
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (readingValue) {
+            value.append(ch, start, length);
+        } else if (readingFormula) {
+            formula.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        String name = localName != null && !localName.isEmpty() ? localName : qName;
+
+        if ("v".equals(name) || "t".equals(name)) {
+            readingValue = false;
+        } else if ("f".equals(name)) {
+            readingFormula = false;
+        } else if ("c".equals(name)) {
+            if (currentRow != null) {
+                currentRow.setCell(cellColumnIndex, readCell());
+            }
+        } else if ("row".equals(name)) {
+            if (currentRow != null) {
+                listener.onRow(currentRow);
+                currentRow = null;
+            }
+        }
+    }
+
+    /**
+     * Converts the buffered cell contents the same way ExcelService.getCellValueAsString
+     * converts a cell of the in-memory workbook.
+     */
+    private SheetCell readCell() {
+        String raw = value.toString();
+        String formulaText = hasFormula ? formula.toString() : null;
+        SheetCell cell = new SheetCell(cellReference, cellRowIndex, cellColumnIndex, formulaText);
+
+        try {
+            if ("s".equals(cellType)) {
+                cell.text = true;
+                cell.value = raw.isEmpty() ? "" : sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString();
+            } else if ("inlineStr".equals(cellType) || "str".equals(cellType)) {
+                cell.text = true;
+                cell.value = raw;
+            } else if ("b".equals(cellType)) {
+                cell.value = String.valueOf("1".equals(raw.trim()) || "true".equalsIgnoreCase(raw.trim()));
+            } else if ("e".equals(cellType)) {
+                // Error results of formulas are reported as the formula itself
+                cell.value = formulaText != null && !formulaText.isEmpty() ? formulaText : "";
+            } else if (raw.isEmpty()) {
+                // Blank cell - only formatting information is present
+                cell.text = formulaText == null;
+                cell.value = "";
+            } else {
+                double numericValue = Double.parseDouble(raw.trim());
+                if (isDateFormatted()) {
+                    cell.value = DateUtil.getJavaDate(numericValue).toString();
+                } else if (numericValue == Math.floor(numericValue)) {
+                    // Convert numeric to string without decimal for integers
+                    cell.value = String.valueOf((int) numericValue);
+                } else {
+                    cell.value = String.valueOf(numericValue);
+                }
+            }
+        } catch (RuntimeException e) {
+            if (formulaText == null) {
+                throw e;
+            }
+
+            // Reported when the cell is actually read, like the in-memory parser
+            cell.issue = RosterIssue.cell(RosterIssue.Kind.UNREADABLE_CELL,
+                    "Cannot get a STRING value from a NUMERIC formula cell",
+                    sheetName, cellReference, formulaText, cellRowIndex, cellColumnIndex);
+        }
+
+        return cell;
+    }
+
+    private boolean isDateFormatted() {
+        if (cellStyle == null || styles == null) {
+            return false;
+        }
+
+        XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(cellStyle));
+        if (style == null) {
+            return false;
+        }
+
+        return DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+    }
+
+    /**
+     * A single cell value with the location details needed for error reporting
+     */
+    static final class SheetCell {
+        private final String reference;
+        private final int rowIndex;
+        private final int columnIndex;
+        private final String formula;
+        private String value = "";
+        private boolean text;
+        private RosterIssue issue;
+
+        private SheetCell(String reference, int rowIndex, int columnIndex, String formula) {
+            this.reference = reference;
+            this.rowIndex = rowIndex;
+            this.columnIndex = columnIndex;
+            this.formula = formula;
+        }
+
+        /**
+         * A cell already read elsewhere, e.g. copied from a loaded workbook
+         * @param issue Why the value could not be read, or null
+         */
+        SheetCell(int rowIndex, int columnIndex, String value, RosterIssue issue) {
+            this(null, rowIndex, columnIndex, null);
+            this.value = value;
+            this.issue = issue;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        /**
+         * Why the cell's value could not be read, or null if it could
+         */
+        RosterIssue getIssue() {
+            return issue;
+        }
+
+        /**
+         * Whether the cell holds text (or is blank), i.e. whether the in-memory workbook
+         * would return it from getStringCellValue without an IllegalStateException
+         */
+        boolean isText() {
+            return text && issue == null;
+        }
+
+        String getReference() {
+            return reference;
+        }
+
+        int getRowIndex() {
+            return rowIndex;
+        }
+
+        int getColumnIndex() {
+            return columnIndex;
+        }
+
+        String getFormula() {
+            return formula != null ? formula : "";
+        }
+    }
+
+    /**
+     * The cells of one worksheet row, indexed by 0-based column
+     */
+    static final class SheetRow {
+        private final String sheetName;
+        private final int rowIndex;
+        private final List<SheetCell> cells = new ArrayList<>();
+
+        SheetRow(String sheetName, int rowIndex) {
+            this.sheetName = sheetName;
+            this.rowIndex = rowIndex;
+        }
+
+        void setCell(int columnIndex, SheetCell cell) {
+            while (cells.size() <= columnIndex) {
+                cells.add(null);
+            }
+            cells.set(columnIndex, cell);
+        }
+
+        String getSheetName() {
+            return sheetName;
+        }
+
+        int getRowIndex() {
+            return rowIndex;
+        }
+
+        int getLastCellNum() {
+            return cells.size();
+        }
+
+        SheetCell getCell(int columnIndex) {
+            return columnIndex >= 0 && columnIndex < cells.size() ? cells.get(columnIndex) : null;
+        }
+    }
+}
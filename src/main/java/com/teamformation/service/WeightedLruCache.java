@@ -0,0 +1,103 @@
+package com.teamformation.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe map with least-recently-used eviction.
+ * Entries expire after the time-to-live, and the least recently used ones are dropped once either
+ * the entry limit or the total weight limit is exceeded. The newest entry is always kept.
+ */
+class WeightedLruCache<K, V> {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long ttlMillis;
+    private final ToLongFunction<V> weigher;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+
+    /**
+     * @param ttlMillis Time-to-live of an entry, 0 for none
+     */
+    WeightedLruCache(int maxEntries, long maxWeight, long ttlMillis, ToLongFunction<V> weigher) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ttlMillis = ttlMillis;
+        this.weigher = weigher;
+    }
+
+    synchronized void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, weigher.applyAsLong(value), System.currentTimeMillis());
+        Entry<V> replaced = entries.put(key, entry);
+        if (replaced != null) {
+            totalWeight -= replaced.weight;
+        }
+        totalWeight += entry.weight;
+        evict();
+    }
+
+    /**
+     * @return The value, or null if absent or expired
+     */
+    synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, System.currentTimeMillis())) {
+            remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    synchronized void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            totalWeight -= entry.weight;
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long totalWeight() {
+        return totalWeight;
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && entries.size() > 1) {
+            Entry<V> eldest = iterator.next().getValue();
+            boolean overLimit = entries.size() > maxEntries || totalWeight > maxWeight;
+            if (!overLimit && !isExpired(eldest, now)) {
+                continue;
+            }
+            iterator.remove();
+            totalWeight -= eldest.weight;
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return ttlMillis > 0 && now - entry.storedAt > ttlMillis;
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long weight;
+        final long storedAt;
+
+        Entry(V value, long weight, long storedAt) {
+            this.value = value;
+            this.weight = weight;
+            this.storedAt = storedAt;
+        }
+    }
+}
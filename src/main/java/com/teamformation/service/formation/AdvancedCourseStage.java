@@ -0,0 +1,48 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.CourseType;
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forms the SQL Bootcamp Advanced Course teams: Advanced (not Full) course students dealt out
+ * in random order over 5-member teams
+ */
+public class AdvancedCourseStage implements FormationStage {
+
+    static final int TEAM_SIZE = 5; // SQL Bootcamp Advanced Course uses 5-member teams
+
+    @Override
+    public String getName() {
+        return "advanced-course";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        List<Student> advancedStudents = context.unassignedStudents(AdvancedCourseStage::isAdvancedCourse);
+
+        int advancedTeamCount = Math.max(1, (advancedStudents.size() + TEAM_SIZE - 1) / TEAM_SIZE);
+
+        List<Team> advancedTeams = new ArrayList<>();
+        for (int i = 0; i < advancedTeamCount; i++) {
+            advancedTeams.add(context.createTeam("Advanced Team " + (i + 1)));
+        }
+
+        // Distribute advanced course students evenly
+        context.shuffle(advancedStudents); // Randomize order
+        for (int i = 0; i < advancedStudents.size(); i++) {
+            context.place(advancedStudents.get(i), advancedTeams.get(i % advancedTeamCount));
+        }
+    }
+
+    static boolean isAdvancedCourse(Student student) {
+        return student.getProfile().getCourseType() == CourseType.ADVANCED;
+    }
+
+    static boolean isFullCourse(Student student) {
+        return student.getProfile().getCourseType() == CourseType.FULL_COURSE;
+    }
+}
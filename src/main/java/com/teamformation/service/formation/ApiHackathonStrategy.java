@@ -0,0 +1,91 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.Team;
+import com.teamformation.model.Track;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Phase 1 and Phase 2 API Hackathons: like the Selenium Hackathon, with DVLPR students (and DA
+ * students in Phase 1) spread evenly before grouping by time zone
+ */
+@Component
+public class ApiHackathonStrategy implements TeamFormationStrategy {
+
+    private static final int HACKATHON_TEAM_SIZE = 5; // Hackathons use 5-member teams
+
+    private final int refinementIterationsPerStudent;
+    private final long refinementMaxIterations;
+    private final long refinementTimeBudgetMillis;
+
+    public ApiHackathonStrategy() {
+        this(SwapRefinementStage.DEFAULT_ITERATIONS_PER_STUDENT, SwapRefinementStage.DEFAULT_MAX_ITERATIONS,
+                SwapRefinementStage.DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    /**
+     * @param refinementIterationsPerStudent Swap refinement budget per student, 0 to skip refinement
+     * @param refinementMaxIterations Swap refinement budget per formation, 0 for no limit
+     * @param refinementTimeBudgetMillis Wall-clock limit for swap refinement, 0 for none
+     */
+    @Autowired
+    public ApiHackathonStrategy(
+            @Value("${teamformation.refinement.iterations-per-student:" + SwapRefinementStage.DEFAULT_ITERATIONS_PER_STUDENT + "}") int refinementIterationsPerStudent,
+            @Value("${teamformation.refinement.max-iterations:" + SwapRefinementStage.DEFAULT_MAX_ITERATIONS + "}") long refinementMaxIterations,
+            @Value("${teamformation.refinement.time-budget-ms:" + SwapRefinementStage.DEFAULT_TIME_BUDGET_MILLIS + "}") long refinementTimeBudgetMillis) {
+        this.refinementIterationsPerStudent = refinementIterationsPerStudent;
+        this.refinementMaxIterations = refinementMaxIterations;
+        this.refinementTimeBudgetMillis = refinementTimeBudgetMillis;
+    }
+
+    @Override
+    public Set<EventType> getEventTypes() {
+        return EnumSet.of(EventType.PHASE1_API_HACKATHON, EventType.PHASE2_API_HACKATHON);
+    }
+
+    @Override
+    public int getTeamSize() {
+        return HACKATHON_TEAM_SIZE;
+    }
+
+    @Override
+    public List<FormationStage> getStages(EventType eventType) {
+        List<FormationStage> stages = new ArrayList<>();
+        stages.add(new TeamSetupStage(TeamSetupStage.Sizing.BALANCED, "Team "));
+        stages.add(BalanceStage.previousHackathon());
+        stages.add(BalanceStage.working());
+        if (eventType == EventType.PHASE1_API_HACKATHON) {
+            stages.add(BalanceStage.track(Track.DA)); // Phase 1 needs DA + DVLPR distribution
+        }
+        stages.add(BalanceStage.track(Track.DVLPR));
+        stages.add(new TimeZoneStage());
+        stages.add(new FillRemainingStage());
+        stages.add(new SwapRefinementStage(refinementIterationsPerStudent, refinementMaxIterations, refinementTimeBudgetMillis));
+        stages.add(new HackathonStatisticsStage("Previous API Hackathon"));
+        return stages;
+    }
+
+    @Override
+    public String summarize(EventType eventType, FormationTotals totals) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Created %d teams for %s\n", totals.getTeams(), eventType.getDisplayName()));
+        summary.append(String.format("Total students: %d\n", totals.getStudents()));
+
+        summary.append(String.format("Distribution - SDET: %d, DA: %d, DVLPR: %d, Working: %d, Previous API Hackathon: %d\n",
+                totals.track(Track.SDET), totals.track(Track.DA), totals.track(Track.DVLPR), totals.getWorking(),
+                totals.getPreviousHackathon()));
+
+        if (totals.getUnassigned() > 0) {
+            summary.append(String.format("Unassigned students: %d\n", totals.getUnassigned()));
+        }
+
+        return summary.toString();
+    }
+}
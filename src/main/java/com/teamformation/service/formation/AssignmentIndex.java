@@ -0,0 +1,73 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Tracks which students have been placed in a team during a single formation run.
+ * Students are keyed by their normalized email, so two rows with the same email
+ * (in any letter case) count as the same student. Lookups and placements are O(1).
+ */
+public class AssignmentIndex {
+
+    private final Map<String, Team> teamByKey = new HashMap<>();
+
+    // Normalized keys are computed once per student instance
+    private final Map<Student, String> keys = new IdentityHashMap<>();
+
+    /**
+     * Adds the student to the team and records the placement
+     */
+    public void place(Student student, Team team) {
+        team.addMember(student);
+        teamByKey.put(keyOf(student), team);
+    }
+
+    /**
+     * Records a placement for a student that is already a member of the team
+     */
+    public void record(Student student, Team team) {
+        teamByKey.put(keyOf(student), team);
+    }
+
+    /**
+     * Forgets the placement of the student, e.g. after it was removed from its team
+     */
+    public void unassign(Student student) {
+        teamByKey.remove(keyOf(student));
+    }
+
+    public boolean isAssigned(Student student) {
+        return teamByKey.containsKey(keyOf(student));
+    }
+
+    /**
+     * @return The team the student was placed in, or null if unassigned
+     */
+    public Team teamOf(Student student) {
+        return teamByKey.get(keyOf(student));
+    }
+
+    public int size() {
+        return teamByKey.size();
+    }
+
+    private String keyOf(Student student) {
+        return keys.computeIfAbsent(student, AssignmentIndex::normalize);
+    }
+
+    private static String normalize(Student student) {
+        return normalize(student.getEmail());
+    }
+
+    /**
+     * Key of an email; emails that differ only in letter case or surrounding spaces share a key
+     */
+    static String normalize(String email) {
+        return email != null ? email.trim().toLowerCase() : "";
+    }
+}
@@ -0,0 +1,70 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.Track;
+
+/**
+ * Keeps the {@link FormationScorer} balance score of a formation up to date as students join and leave
+ * teams, from each change's join or leave cost instead of scoring every team again.
+ * The score is split into the part the costs change, sums of squared counts plus time zone pairs and
+ * batch conflicts, and the mean term of each squared deviation, (sum of counts)^2 / teams, which only
+ * needs the formation's totals of each balanced count and the number of teams.
+ */
+final class BalanceScoreTracker {
+
+    private final FormationTotals totals;
+    private double squaresAndConflicts;
+
+    /**
+     * @param totals Totals of the teams, kept up to date by this tracker as students join and leave
+     * @param score Balance score of the teams as they are
+     */
+    BalanceScoreTracker(FormationTotals totals, double score) {
+        this.totals = totals;
+        this.squaresAndConflicts = score + meanTerms();
+    }
+
+    /**
+     * Records the student joining the team; call before the student is added
+     */
+    void joining(Team team, Student student) {
+        squaresAndConflicts += FormationScorer.joinCost(team, student);
+        totals.joined(student);
+    }
+
+    /**
+     * Records the student, a member, leaving the team; call before the student is removed
+     */
+    void leaving(Team team, Student student) {
+        squaresAndConflicts -= FormationScorer.leaveCost(team, student);
+        totals.left(student);
+    }
+
+    /**
+     * Balance score over the teams the totals count; empty teams add nothing but the mean terms
+     * depend on how many teams there are
+     */
+    double score() {
+        return totals.getTeams() > 0 ? squaresAndConflicts - meanTerms() : 0;
+    }
+
+    // Balanced counts: team size, members per track, members with hackathon experience, working members
+    private double meanTerms() {
+        int teams = totals.getTeams();
+        if (teams == 0) {
+            return 0;
+        }
+        double sum = square(totals.getAssigned());
+        for (Track track : FormationScorer.TRACKS) {
+            sum += square(totals.track(track));
+        }
+        sum += square(totals.getPreviousHackathon());
+        sum += square(totals.getWorking());
+        return sum / teams;
+    }
+
+    private static double square(long total) {
+        return (double) total * total;
+    }
+}
@@ -0,0 +1,92 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.Track;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Spreads the unassigned students of one category evenly over all teams.
+ * Each student goes to the team with the fewest members of that category, counting members
+ * placed by earlier stages, that has no member of the student's batch and track; only if every team
+ * has one does the batch/track constraint give way. Team size is not limited here; later stages even it out.
+ */
+@Slf4j
+public class BalanceStage implements FormationStage {
+
+    private final String category;
+    private final Predicate<Student> inCategory;
+    private final ToIntFunction<Team> categoryCount;
+
+    /**
+     * @param inCategory Students of the category
+     * @param categoryCount Number of members of the category already in a team
+     */
+    public BalanceStage(String category, Predicate<Student> inCategory, ToIntFunction<Team> categoryCount) {
+        this.category = category;
+        this.inCategory = inCategory;
+        this.categoryCount = categoryCount;
+    }
+
+    /**
+     * Students who have taken part in a hackathon before
+     */
+    public static BalanceStage previousHackathon() {
+        return new BalanceStage("previous hackathon", s -> s.getProfile().isPreviousHackathon(),
+                Team::getPreviousHackathonCount);
+    }
+
+    /**
+     * Students who are currently working
+     */
+    public static BalanceStage working() {
+        return new BalanceStage("working", s -> s.getProfile().isWorking(), Team::getWorkingCount);
+    }
+
+    /**
+     * Students of the given track
+     */
+    public static BalanceStage track(Track track) {
+        return new BalanceStage(track.name(), s -> s.getProfile().getTrack() == track, team -> team.countByTrack(track));
+    }
+
+    @Override
+    public String getName() {
+        return "balance-" + category.replace(' ', '-').toLowerCase();
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        List<Team> teams = context.getTeams();
+        int numTeams = teams.size();
+
+        // Count members of this category already placed by earlier stages
+        int[] categoryCount = new int[numTeams];
+        for (int i = 0; i < numTeams; i++) {
+            categoryCount[i] = this.categoryCount.applyAsInt(teams.get(i));
+        }
+        TeamAllocator allocator = TeamAllocator.of(categoryCount);
+
+        List<Student> students = context.unassignedStudents(inCategory);
+
+        log.debug("Found {} unassigned {} students", students.size(), category);
+
+        // Randomize to ensure fair distribution
+        context.shuffle(students);
+
+        for (Student student : students) {
+            // Team with the fewest students of this category among those without the student's batch and track;
+            // at most the teams with it are passed over
+            int batchTrack = context.batchTrackOf(student);
+            int targetTeam = allocator.peek(team -> !context.hasBatchTrack(team, batchTrack),
+                    context.teamsWithBatchTrack(batchTrack) + 1);
+
+            context.place(student, teams.get(targetTeam));
+            allocator.adjust(targetTeam, 1);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.teamformation.service.formation;
+
+import java.util.Arrays;
+
+/**
+ * Batch/track pairs present in each team of a formation run: one bitmap per team over the roster's
+ * dense batch/track IDs, stored back to back in a single array. Whether a team already has a member
+ * from a student's batch and track is then one bit test, cheap enough for the placement loops.
+ * Rosters have a few batches per track, so a team's bitmap is a word or two.
+ * The bitmap also counts the teams with each batch/track, so a placement that must avoid one knows how
+ * many teams it may have to pass over.
+ */
+final class BatchTrackBitmap {
+
+    /**
+     * Teams the round-robin stage looks at for one without the student's batch and track before accepting a conflict
+     */
+    static final int SEARCH_LIMIT = 16;
+
+    private final int words;
+    private long[] bits;
+    private int teams;
+
+    // Number of teams with each batch/track ID
+    private final int[] teamsWith;
+
+    /**
+     * @param batchTracks Number of distinct batch/track IDs on the roster
+     */
+    BatchTrackBitmap(int batchTracks) {
+        this.words = Math.max(1, (batchTracks + 63) >>> 6);
+        this.bits = new long[words * 16];
+        this.teamsWith = new int[batchTracks];
+    }
+
+    /**
+     * Adds an empty bitmap for the next team index
+     */
+    void addTeam() {
+        teams++;
+        if (teams * words > bits.length) {
+            bits = Arrays.copyOf(bits, bits.length * 2);
+        }
+    }
+
+    /**
+     * Whether the team has a member with the batch/track ID; always false for -1 (no batch or track)
+     */
+    boolean contains(int team, int batchTrack) {
+        return batchTrack >= 0 && (bits[team * words + (batchTrack >>> 6)] & 1L << batchTrack) != 0;
+    }
+
+    /**
+     * Number of teams with a member with the batch/track ID; 0 for -1
+     */
+    int teamsWith(int batchTrack) {
+        return batchTrack >= 0 ? teamsWith[batchTrack] : 0;
+    }
+
+    void add(int team, int batchTrack) {
+        if (batchTrack >= 0 && !contains(team, batchTrack)) {
+            bits[team * words + (batchTrack >>> 6)] |= 1L << batchTrack;
+            teamsWith[batchTrack]++;
+        }
+    }
+
+    void remove(int team, int batchTrack) {
+        if (contains(team, batchTrack)) {
+            bits[team * words + (batchTrack >>> 6)] &= ~(1L << batchTrack);
+            teamsWith[batchTrack]--;
+        }
+    }
+
+    /**
+     * Renumbers the teams after some were dropped
+     * @param newIndex New index of each team, -1 for dropped teams
+     */
+    void renumber(int[] newIndex) {
+        int kept = 0;
+        for (int team = 0; team < newIndex.length; team++) {
+            if (newIndex[team] < 0) {
+                forget(team);
+            } else {
+                System.arraycopy(bits, team * words, bits, newIndex[team] * words, words);
+                kept++;
+            }
+        }
+        Arrays.fill(bits, kept * words, teams * words, 0);
+        teams = kept;
+    }
+
+    /**
+     * Uncounts the batch/track IDs of a dropped team
+     */
+    private void forget(int team) {
+        for (int word = 0; word < words; word++) {
+            for (long set = bits[team * words + word]; set != 0; set &= set - 1) {
+                teamsWith[word * 64 + Long.numberOfTrailingZeros(set)]--;
+            }
+        }
+    }
+}
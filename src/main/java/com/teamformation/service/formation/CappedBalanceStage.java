@@ -0,0 +1,97 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.ExpertiseLevel;
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Spreads a group of students over the teams that still have room.
+ * Each student goes to the team below the team size with the fewest members of the category;
+ * students are left unassigned once every team is full.
+ */
+@Slf4j
+public class CappedBalanceStage implements FormationStage {
+
+    private final String category;
+    private final Predicate<Student> inGroup;
+    private final ToIntFunction<Team> categoryCount;
+
+    /**
+     * @param category Name of the category, for logging
+     * @param inGroup Students to distribute
+     * @param categoryCount Number of members of the category in a team, compared between teams
+     */
+    public CappedBalanceStage(String category, Predicate<Student> inGroup, ToIntFunction<Team> categoryCount) {
+        this.category = category;
+        this.inGroup = inGroup;
+        this.categoryCount = categoryCount;
+    }
+
+    /**
+     * Students of the given SQL/Python expertise level; students without a level count as Beginner
+     */
+    public static CappedBalanceStage expertise(ExpertiseLevel level) {
+        return new CappedBalanceStage(level.getDisplayName(),
+                s -> s.getProfile().getExpertise() == level,
+                team -> team.countByExpertise(level));
+    }
+
+    @Override
+    public String getName() {
+        return "capped-balance-" + category.toLowerCase();
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        distribute(context, context.unassignedStudents(inGroup), category, categoryCount);
+    }
+
+    /**
+     * Distributes the given students over the teams with room, balancing the category count
+     */
+    static void distribute(FormationContext context, List<Student> students, String category,
+                           ToIntFunction<Team> categoryCount) {
+        List<Team> teams = context.getTeams();
+        if (students.isEmpty() || teams.isEmpty()) {
+            return;
+        }
+
+        log.debug("Distributing {} {} students across {} teams", students.size(), category, teams.size());
+
+        // Randomize students to avoid patterns
+        context.shuffle(students);
+
+        // Teams that haven't reached the maximum team size, by number of students in this category
+        int teamSize = context.getTeamSize();
+        TeamAllocator allocator = new TeamAllocator(teams.size());
+        for (int i = 0; i < teams.size(); i++) {
+            if (teams.get(i).getSize() < teamSize) {
+                allocator.offer(i, categoryCount.applyAsInt(teams.get(i)));
+            }
+        }
+
+        for (Student student : students) {
+            if (allocator.isEmpty()) {
+                break; // Every team is at capacity
+            }
+            if (context.isAssigned(student)) {
+                continue;
+            }
+
+            int targetIndex = allocator.peek();
+            Team targetTeam = teams.get(targetIndex);
+            context.place(student, targetTeam);
+
+            if (targetTeam.getSize() >= teamSize) {
+                allocator.remove(targetIndex);
+            } else {
+                allocator.offer(targetIndex, categoryCount.applyAsInt(targetTeam));
+            }
+        }
+    }
+}
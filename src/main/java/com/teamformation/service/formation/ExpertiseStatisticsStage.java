@@ -0,0 +1,41 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Team;
+
+/**
+ * Records expertise level and track counts on each team
+ */
+public class ExpertiseStatisticsStage implements TeamStatisticsStage {
+
+    @Override
+    public String getName() {
+        return "statistics";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        for (Team team : context.getTeams()) {
+            describe(team);
+        }
+    }
+
+    @Override
+    public void describe(Team team) {
+        StringBuilder stats = new StringBuilder();
+
+        // Expertise stats
+        stats.append("Expertise: ");
+        stats.append("Advanced: ").append(team.countByExpertise("Advanced")).append(", ");
+        stats.append("Intermediate: ").append(team.countByExpertise("Intermediate")).append(", ");
+        stats.append("Beginner: ").append(team.countByExpertise("Beginner")).append(" | ");
+
+        // Track stats
+        stats.append("Tracks: ");
+        stats.append("SDET: ").append(team.getSdetCount()).append(", ");
+        stats.append("DA: ").append(team.getDaCount()).append(", ");
+        stats.append("DVLPR: ").append(team.getDvlprCount()).append(", ");
+        stats.append("SMPO: ").append(team.countByTrack("SMPO"));
+
+        team.setStatistics(stats.toString());
+    }
+}
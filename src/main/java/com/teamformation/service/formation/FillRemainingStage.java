@@ -0,0 +1,72 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Places every student still unassigned in the team with the most open places among those without a
+ * member of the student's batch and track. If no such team has an open place, the student goes to the
+ * team with the most open places regardless.
+ */
+@Slf4j
+public class FillRemainingStage implements FormationStage {
+
+    @Override
+    public String getName() {
+        return "fill-remaining";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        List<Team> teams = context.getTeams();
+
+        int[] remainingSpots = context.getRemainingSpots();
+        if (remainingSpots == null) {
+            remainingSpots = context.computeRemainingSpots();
+            context.setRemainingSpots(remainingSpots);
+        }
+
+        List<Student> finalRemaining = context.unassignedStudents(s -> true);
+
+        log.debug("Final check: {} students still need assignment", finalRemaining.size());
+
+        if (finalRemaining.isEmpty()) {
+            return;
+        }
+
+        // Teams by most open places first
+        int[] negatedSpots = new int[remainingSpots.length];
+        for (int i = 0; i < remainingSpots.length; i++) {
+            negatedSpots[i] = -remainingSpots[i];
+        }
+        TeamAllocator allocator = TeamAllocator.of(negatedSpots);
+
+        for (Student student : finalRemaining) {
+            int batchTrack = context.batchTrackOf(student);
+            int maxIndex = allocator.peek(team -> !context.hasBatchTrack(team, batchTrack),
+                    context.teamsWithBatchTrack(batchTrack) + 1);
+            if (remainingSpots[maxIndex] <= 0) {
+                maxIndex = allocator.peek();
+            }
+            context.place(student, teams.get(maxIndex));
+            remainingSpots[maxIndex]--;
+            allocator.adjust(maxIndex, 1);
+        }
+    }
+
+    /**
+     * Index of the first team with the most open places
+     */
+    static int mostSpace(int[] remainingSpots) {
+        int maxIndex = 0;
+        for (int i = 1; i < remainingSpots.length; i++) {
+            if (remainingSpots[i] > remainingSpots[maxIndex]) {
+                maxIndex = i;
+            }
+        }
+        return maxIndex;
+    }
+}
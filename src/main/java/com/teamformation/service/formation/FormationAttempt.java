@@ -0,0 +1,26 @@
+package com.teamformation.service.formation;
+
+import lombok.Getter;
+
+/**
+ * Outcome of running a strategy's stages once with a given seed
+ */
+@Getter
+public class FormationAttempt {
+
+    private final FormationContext context;
+    private final long seed;
+    private final double balanceScore;
+
+    /**
+     * Number of attempts this one was selected from
+     */
+    private final int attempts;
+
+    public FormationAttempt(FormationContext context, long seed, double balanceScore, int attempts) {
+        this.context = context;
+        this.seed = seed;
+        this.balanceScore = balanceScore;
+        this.attempts = attempts;
+    }
+}
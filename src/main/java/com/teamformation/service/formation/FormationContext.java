@@ -0,0 +1,214 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * State of a single team formation run, shared by the stages of a strategy
+ */
+@Getter
+public class FormationContext {
+
+    private final EventType eventType;
+    private final Roster roster;
+    private final List<Student> students;
+    private final int teamSize;
+
+    /**
+     * Source of randomness for the stages, seeded per attempt. Stages draw from it in a fixed order,
+     * so an attempt's seed alone determines its teams; stages needing their own stream split it.
+     */
+    private final SplittableRandom random;
+    private final List<Team> teams = new ArrayList<>();
+    private final AssignmentIndex assignments = new AssignmentIndex();
+
+    /**
+     * Team index of each roster position, -1 while unplaced; kept in step with the teams' members
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final int[] teamOf;
+    private final Map<Team, Integer> teamIndexes = new IdentityHashMap<>();
+
+    // Batch/track pairs per team, kept in step with the teams' members
+    @Getter(AccessLevel.NONE)
+    private final BatchTrackBitmap batchTracks;
+
+    /**
+     * Open places per team (by index) towards an even team size, set by the first stage that needs it
+     */
+    @Setter
+    private int[] remainingSpots;
+
+    public FormationContext(EventType eventType, List<Student> students, int teamSize, long seed) {
+        this(eventType, Roster.of(students), teamSize, seed);
+    }
+
+    public FormationContext(EventType eventType, Roster roster, int teamSize, long seed) {
+        this.eventType = eventType;
+        this.roster = roster;
+        this.students = roster.getStudents();
+        this.teamSize = teamSize;
+        this.random = new SplittableRandom(seed);
+        this.teamOf = roster.unassigned();
+        this.batchTracks = new BatchTrackBitmap(roster.batchTracks);
+    }
+
+    /**
+     * Creates an empty team and appends it to the run's teams
+     */
+    public Team createTeam(String name) {
+        Team team = Team.builder()
+                .name(name)
+                .members(new ArrayList<>())
+                .build();
+        teamIndexes.put(team, teams.size());
+        teams.add(team);
+        batchTracks.addTeam();
+        return team;
+    }
+
+    public void place(Student student, Team team) {
+        assignments.place(student, team);
+        setTeamOf(student, team);
+    }
+
+    /**
+     * Moves a placed student to another team
+     */
+    public void move(Student student, Team from, Team to) {
+        from.removeMember(student);
+        to.addMember(student);
+        assignments.record(student, to);
+        setTeamOf(student, to);
+
+        // The old team keeps the student's batch and track only if another member shares them
+        int batchTrack = batchTrackOf(student);
+        if (batchTrack >= 0) {
+            for (Student member : from.getMembers()) {
+                if (batchTrackOf(member) == batchTrack) {
+                    return;
+                }
+            }
+            batchTracks.remove(teamIndexes.get(from), batchTrack);
+        }
+    }
+
+    private void setTeamOf(Student student, Team team) {
+        int position = roster.positionOf(student);
+        if (position >= 0) {
+            int index = teamIndexes.get(team);
+            teamOf[position] = index;
+            batchTracks.add(index, roster.batchTrackId[position]);
+        }
+    }
+
+    /**
+     * Dense ID of the student's batch and track on the roster, -1 if either is missing
+     */
+    public int batchTrackOf(Student student) {
+        int position = roster.positionOf(student);
+        return position >= 0 ? roster.batchTrackId[position] : -1;
+    }
+
+    /**
+     * Whether the team (by index) has a member with the batch/track ID from {@link #batchTrackOf(Student)}
+     */
+    public boolean hasBatchTrack(int team, int batchTrack) {
+        return batchTracks.contains(team, batchTrack);
+    }
+
+    /**
+     * Number of teams with a member with the batch/track ID; a placement avoiding the ID finds a team
+     * without it among this many teams plus one, if any team is without it
+     */
+    public int teamsWithBatchTrack(int batchTrack) {
+        return batchTracks.teamsWith(batchTrack);
+    }
+
+    /**
+     * Drops the teams that ended up without members, renumbering the remaining ones
+     */
+    public void removeEmptyTeams() {
+        int[] newIndex = new int[teams.size()];
+        List<Team> kept = new ArrayList<>();
+        teamIndexes.clear();
+        for (int i = 0; i < teams.size(); i++) {
+            Team team = teams.get(i);
+            newIndex[i] = team.getMembers().isEmpty() ? -1 : kept.size();
+            if (newIndex[i] >= 0) {
+                teamIndexes.put(team, kept.size());
+                kept.add(team);
+            }
+        }
+        teams.clear();
+        teams.addAll(kept);
+        batchTracks.renumber(newIndex);
+
+        for (int i = 0; i < teamOf.length; i++) {
+            if (teamOf[i] >= 0) {
+                teamOf[i] = newIndex[teamOf[i]];
+            }
+        }
+    }
+
+    /**
+     * Shuffles the list in place with the run's random source (Fisher-Yates, like Collections.shuffle)
+     */
+    public void shuffle(List<?> list) {
+        shuffle(list, random);
+    }
+
+    static <T> void shuffle(List<T> list, SplittableRandom random) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            Collections.swap(list, i, random.nextInt(i + 1));
+        }
+    }
+
+    public boolean isAssigned(Student student) {
+        return assignments.isAssigned(student);
+    }
+
+    /**
+     * Students matching the filter that have not been placed yet, in roster order
+     */
+    public List<Student> unassignedStudents(Predicate<Student> filter) {
+        return students.stream()
+                .filter(filter)
+                .filter(student -> !assignments.isAssigned(student))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Open places per team towards an even distribution of all students over the current teams:
+     * every team gets totalStudents / teams members, and the first totalStudents % teams teams one more.
+     */
+    public int[] computeRemainingSpots() {
+        int numTeams = teams.size();
+        int totalStudents = students.size();
+        int targetSize = totalStudents / numTeams;
+        int[] spots = new int[numTeams];
+
+        for (int i = 0; i < numTeams; i++) {
+            spots[i] = targetSize - teams.get(i).getSize();
+            // Adjust for teams that should have one extra student (to handle remainder)
+            if (i < totalStudents % numTeams) {
+                spots[i]++;
+            }
+        }
+
+        return spots;
+    }
+}
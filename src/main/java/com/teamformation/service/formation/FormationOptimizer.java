@@ -0,0 +1,186 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.metrics.FormationMetrics;
+import com.teamformation.model.EventType;
+import com.teamformation.model.Student;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a strategy's stages as several independently seeded attempts and keeps the one with the
+ * best {@link FormationScorer balance score}. Attempts run in parallel on a dedicated ForkJoinPool;
+ * with a time budget, attempts still pending when it runs out are dropped (at least one always completes).
+ * Attempt seeds derive from the base seed and ties go to the earlier attempt, so without a time budget
+ * the same base seed always selects the same formation.
+ * With a single attempt (the default) the stages run once on the calling thread.
+ */
+@Slf4j
+@Component
+public class FormationOptimizer {
+
+    // Spreads the per-attempt seeds derived from one base seed
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int attempts;
+    private final long timeBudgetMillis;
+    private final int parallelism;
+    private final FormationMetrics metrics;
+
+    private ForkJoinPool pool;
+
+    /**
+     * Optimizer that runs a single attempt
+     */
+    public FormationOptimizer() {
+        this(1, 0, 0, FormationMetrics.NOOP);
+    }
+
+    /**
+     * @param attempts Number of seeded attempts per formation
+     * @param timeBudgetMillis Wall-clock budget for the attempts, 0 for no limit
+     * @param parallelism Worker threads, 0 for one per available processor
+     * @param metrics Receives the time of every stage
+     */
+    @Autowired
+    public FormationOptimizer(@Value("${teamformation.optimizer.attempts:1}") int attempts,
+                              @Value("${teamformation.optimizer.time-budget-ms:0}") long timeBudgetMillis,
+                              @Value("${teamformation.optimizer.parallelism:0}") int parallelism,
+                              FormationMetrics metrics) {
+        this.attempts = Math.max(1, attempts);
+        this.timeBudgetMillis = Math.max(0, timeBudgetMillis);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Forms teams with the strategy and returns the best-balanced attempt
+     */
+    public FormationAttempt optimize(TeamFormationStrategy strategy, EventType eventType, List<Student> students) {
+        return optimize(strategy, eventType, students, null);
+    }
+
+    /**
+     * Forms teams with the strategy and returns the best-balanced attempt
+     *
+     * @param seed Base seed of the attempts, null for a random one
+     */
+    public FormationAttempt optimize(TeamFormationStrategy strategy, EventType eventType, List<Student> students,
+                                     Long seed) {
+        long baseSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+
+        // The columnar roster is read-only, so every attempt shares it
+        Roster roster = Roster.of(students);
+
+        if (attempts == 1) {
+            return runAttempt(strategy, eventType, roster, baseSeed, 1, metrics);
+        }
+
+        long deadline = timeBudgetMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis) : Long.MAX_VALUE;
+
+        CompletionService<FormationAttempt> completionService = new ExecutorCompletionService<>(pool());
+        List<Future<FormationAttempt>> futures = new ArrayList<>(attempts);
+        for (int i = 0; i < attempts; i++) {
+            long attemptSeed = baseSeed + i * SEED_GAMMA;
+            futures.add(completionService.submit(() ->
+                    // Attempts that have not started by the deadline are skipped
+                    System.nanoTime() - deadline < 0 ? runAttempt(strategy, eventType, roster, attemptSeed, 1, metrics) : null));
+        }
+
+        FormationAttempt best = null;
+        int bestIndex = -1;
+        int completed = 0;
+        try {
+            for (int i = 0; i < attempts; i++) {
+                Future<FormationAttempt> done;
+                if (best == null) {
+                    done = completionService.take();
+                } else {
+                    long remaining = deadline - System.nanoTime();
+                    done = remaining > 0 ? completionService.poll(remaining, TimeUnit.NANOSECONDS) : completionService.poll();
+                    if (done == null) {
+                        break; // Out of time
+                    }
+                }
+
+                FormationAttempt attempt = done.get();
+                if (attempt == null) {
+                    continue;
+                }
+                completed++;
+                // Completion order varies between runs, so ties are broken by submission order
+                int index = futures.indexOf(done);
+                if (best == null || attempt.getBalanceScore() < best.getBalanceScore()
+                        || attempt.getBalanceScore() == best.getBalanceScore() && index < bestIndex) {
+                    best = attempt;
+                    bestIndex = index;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while forming teams", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Team formation attempt failed", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
+
+        if (best == null) {
+            // Every attempt was skipped by the deadline; fall back to a single attempt
+            return runAttempt(strategy, eventType, roster, baseSeed, 1, metrics);
+        }
+
+        log.debug("Selected formation with balance score {} out of {} attempts", best.getBalanceScore(), completed);
+
+        return new FormationAttempt(best.getContext(), best.getSeed(), best.getBalanceScore(), completed);
+    }
+
+    /**
+     * Runs the strategy's stages once, timing each, drops teams left empty and scores the result
+     */
+    static FormationAttempt runAttempt(TeamFormationStrategy strategy, EventType eventType, Roster roster,
+                                       long seed, int attempts, FormationMetrics metrics) {
+        FormationContext context = new FormationContext(eventType, roster, strategy.getTeamSize(), seed);
+
+        for (FormationStage stage : strategy.getStages(eventType)) {
+            Timer.Sample sample = metrics.start();
+            stage.apply(context);
+            metrics.stageApplied(sample, stage.getName(), eventType);
+        }
+
+        // Remove any empty teams
+        context.removeEmptyTeams();
+
+        return new FormationAttempt(context, seed, FormationScorer.score(context), attempts);
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
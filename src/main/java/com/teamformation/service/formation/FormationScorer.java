@@ -0,0 +1,211 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+import com.teamformation.model.StudentProfile;
+import com.teamformation.model.Team;
+import com.teamformation.model.TimeZoneGroup;
+import com.teamformation.model.Track;
+import com.teamformation.util.TimeZones;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Balance objective for a formation; lower is better, 0 is perfectly balanced.
+ * Sums the squared deviations from the mean across teams of team size, members per track, members
+ * with hackathon experience and working members, plus one point per pair of members in
+ * incompatible time zones and {@link #BATCH_CONFLICT_WEIGHT} per member sharing batch and track
+ * with a teammate.
+ */
+public final class FormationScorer {
+
+    static final Track[] TRACKS = {Track.SDET, Track.DA, Track.DVLPR, Track.SMPO};
+
+    // Teammates from the same batch and track should be avoided, so a conflict outweighs imbalance
+    static final double BATCH_CONFLICT_WEIGHT = 10;
+
+    /**
+     * Pairs of time zone groups (indexes into {@link TimeZones#GROUPS}) that are compatible in neither direction
+     */
+    static final int[][] INCOMPATIBLE_TIME_ZONES = incompatibleTimeZones();
+
+    private FormationScorer() {
+    }
+
+    public static double score(List<Team> teams) {
+        if (teams.isEmpty()) {
+            return 0;
+        }
+
+        double score = squaredDeviations(teams, Team::getSize);
+        for (Track track : TRACKS) {
+            score += squaredDeviations(teams, team -> team.countByTrack(track));
+        }
+        score += squaredDeviations(teams, Team::getPreviousHackathonCount);
+        score += squaredDeviations(teams, Team::getWorkingCount);
+
+        for (Team team : teams) {
+            score += incompatibleTimeZonePairs(team);
+            score += BATCH_CONFLICT_WEIGHT * team.getBatchConflictCount();
+        }
+
+        return score;
+    }
+
+    /**
+     * Same objective as {@link #score(List)}, computed from the roster columns and the context's
+     * student-to-team column in one pass over primitive arrays
+     */
+    public static double score(FormationContext context) {
+        int numTeams = context.getTeams().size();
+        if (numTeams == 0) {
+            return 0;
+        }
+
+        Roster roster = context.getRoster();
+        int[] teamOf = context.getTeamOf();
+        int[] sizes = new int[numTeams];
+        int[][] balancedCounts = new int[Roster.BALANCED_ATTRIBUTES][numTeams];
+        int[][] timeZoneCounts = new int[numTeams][TimeZoneGroup.values().length];
+        long[] batchTrackKeys = new long[roster.size()];
+        int batchTracks = 0;
+
+        for (int i = 0; i < teamOf.length; i++) {
+            int team = teamOf[i];
+            if (team < 0) {
+                continue;
+            }
+            sizes[team]++;
+            for (int bits = roster.balanced[i]; bits != 0; bits &= bits - 1) {
+                balancedCounts[Integer.numberOfTrailingZeros(bits)][team]++;
+            }
+            if (roster.timeZone[i] >= 0) {
+                timeZoneCounts[team][roster.timeZone[i]]++;
+            }
+            if (roster.batchTrackId[i] >= 0) {
+                batchTrackKeys[batchTracks++] = (long) team << 32 | roster.batchTrackId[i];
+            }
+        }
+
+        double score = squaredDeviations(sizes);
+        for (int[] counts : balancedCounts) {
+            score += squaredDeviations(counts);
+        }
+
+        for (int[] counts : timeZoneCounts) {
+            for (int[] pair : INCOMPATIBLE_TIME_ZONES) {
+                score += counts[pair[0]] * counts[pair[1]];
+            }
+        }
+
+        // Members sharing team, batch and track are adjacent once sorted; all but the first are conflicts
+        Arrays.sort(batchTrackKeys, 0, batchTracks);
+        for (int i = 1; i < batchTracks; i++) {
+            if (batchTrackKeys[i] == batchTrackKeys[i - 1]) {
+                score += BATCH_CONFLICT_WEIGHT;
+            }
+        }
+
+        return score;
+    }
+
+    /**
+     * Change in {@link #score(List)} from adding the student to the team, less a part that is the same
+     * whichever team the student joins; costs of different teams for one student therefore compare exactly
+     */
+    public static double joinCost(Team team, Student student) {
+        return cost(team, student, 1);
+    }
+
+    /**
+     * Change in {@link #score(List)} from removing the student, a member, from the team, less a part that
+     * is the same whichever team the student leaves. Moving a student changes the score by exactly the
+     * join cost of the new team minus the leave cost of the old one.
+     */
+    public static double leaveCost(Team team, Student student) {
+        return cost(team, student, -1);
+    }
+
+    /**
+     * Sum over the squared-deviation terms of 2c + 1 (joining) or 2c - 1 (leaving), where c is the team's
+     * count the student adds to, plus the conflicts the student has or would have with its teammates
+     */
+    private static double cost(Team team, Student student, int direction) {
+        StudentProfile profile = student.getProfile();
+        double cost = 2 * team.getSize() + direction;
+        for (Track track : TRACKS) {
+            if (profile.getTrack() == track) {
+                cost += 2 * team.countByTrack(track) + direction;
+            }
+        }
+        if (profile.isPreviousHackathon()) {
+            cost += 2 * team.getPreviousHackathonCount() + direction;
+        }
+        if (profile.isWorking()) {
+            cost += 2 * team.getWorkingCount() + direction;
+        }
+
+        if (profile.getTimeZone() != null) {
+            int group = profile.getTimeZone().ordinal();
+            for (int[] pair : INCOMPATIBLE_TIME_ZONES) {
+                if (pair[0] == group) {
+                    cost += team.countByTimeZone(TimeZoneGroup.at(pair[1]));
+                } else if (pair[1] == group) {
+                    cost += team.countByTimeZone(TimeZoneGroup.at(pair[0]));
+                }
+            }
+        }
+
+        // A leaving member is counted among the members sharing its batch and track
+        if (team.countSameBatchAndTrack(student) > (direction > 0 ? 0 : 1)) {
+            cost += BATCH_CONFLICT_WEIGHT;
+        }
+
+        return cost;
+    }
+
+    private static double squaredDeviations(int[] counts) {
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int value : counts) {
+            sum += value;
+            sumOfSquares += (double) value * value;
+        }
+        return sumOfSquares - sum * sum / counts.length;
+    }
+
+    private static double squaredDeviations(List<Team> teams, ToIntFunction<Team> count) {
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (Team team : teams) {
+            int value = count.applyAsInt(team);
+            sum += value;
+            sumOfSquares += (double) value * value;
+        }
+        return sumOfSquares - sum * sum / teams.size();
+    }
+
+    private static int incompatibleTimeZonePairs(Team team) {
+        int pairs = 0;
+        for (int[] pair : INCOMPATIBLE_TIME_ZONES) {
+            pairs += team.countByTimeZone(TimeZoneGroup.at(pair[0])) * team.countByTimeZone(TimeZoneGroup.at(pair[1]));
+        }
+        return pairs;
+    }
+
+    private static int[][] incompatibleTimeZones() {
+        List<String> groups = TimeZones.GROUPS;
+        List<int[]> pairs = new ArrayList<>();
+        for (int a = 0; a < groups.size(); a++) {
+            for (int b = a + 1; b < groups.size(); b++) {
+                if (!TimeZones.compatibleWith(groups.get(a)).contains(groups.get(b)) &&
+                        !TimeZones.compatibleWith(groups.get(b)).contains(groups.get(a))) {
+                    pairs.add(new int[]{a, b});
+                }
+            }
+        }
+        return pairs.toArray(new int[0][]);
+    }
+}
@@ -0,0 +1,15 @@
+package com.teamformation.service.formation;
+
+/**
+ * One pass of a team formation run, e.g. creating the teams or balancing one category of students.
+ * Stages are stateless; everything a run needs is held by the {@link FormationContext}.
+ */
+public interface FormationStage {
+
+    /**
+     * Short name of the stage, used in logs and measurements
+     */
+    String getName();
+
+    void apply(FormationContext context);
+}
@@ -0,0 +1,98 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.CourseType;
+import com.teamformation.model.ExpertiseLevel;
+import com.teamformation.model.Student;
+import com.teamformation.model.StudentProfile;
+import com.teamformation.model.Team;
+import com.teamformation.model.Track;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Formation-wide counts a summary is written from: teams, assigned and unassigned students, and the
+ * assigned students per track, course type, expertise level, working status and hackathon experience.
+ * Counted once when teams are formed, then kept up to date as students join, leave and teams empty,
+ * so a roster update does not count every team again.
+ */
+public final class FormationTotals {
+
+    @Getter
+    private int teams;
+    @Getter
+    private int assigned;
+    @Getter
+    private int unassigned;
+    private final int[] byTrack = new int[Track.values().length];
+    private final int[] byCourseType = new int[CourseType.values().length];
+    private final int[] byExpertise = new int[ExpertiseLevel.values().length];
+    @Getter
+    private int working;
+    @Getter
+    private int previousHackathon;
+
+    /**
+     * Counts the members of the teams, and the unassigned students
+     */
+    public static FormationTotals of(List<Team> teams, List<Student> unassignedStudents) {
+        FormationTotals totals = new FormationTotals();
+        totals.teams = teams.size();
+        totals.unassigned = unassignedStudents.size();
+        for (Team team : teams) {
+            for (Student member : team.getMembers()) {
+                totals.assign(member, 1);
+            }
+        }
+        return totals;
+    }
+
+    void joined(Student student) {
+        assign(student, 1);
+    }
+
+    void left(Student student) {
+        assign(student, -1);
+    }
+
+    void unassignedChanged(int delta) {
+        unassigned += delta;
+    }
+
+    void teamsChanged(int delta) {
+        teams += delta;
+    }
+
+    private void assign(Student student, int delta) {
+        StudentProfile profile = student.getProfile();
+        assigned += delta;
+        byTrack[profile.getTrack().ordinal()] += delta;
+        byCourseType[profile.getCourseType().ordinal()] += delta;
+        byExpertise[profile.getExpertise().ordinal()] += delta;
+        if (profile.isWorking()) {
+            working += delta;
+        }
+        if (profile.isPreviousHackathon()) {
+            previousHackathon += delta;
+        }
+    }
+
+    /**
+     * Assigned and unassigned students
+     */
+    public int getStudents() {
+        return assigned + unassigned;
+    }
+
+    public int track(Track track) {
+        return byTrack[track.ordinal()];
+    }
+
+    public int courseType(CourseType courseType) {
+        return byCourseType[courseType.ordinal()];
+    }
+
+    public int expertise(ExpertiseLevel level) {
+        return byExpertise[level.ordinal()];
+    }
+}
@@ -0,0 +1,160 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.Track;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Forms the SQL Bootcamp Full Course teams. Each team first gets one DVLPR and one SMPO student
+ * when there are enough for every team, then an even share of SDET and DA students within the
+ * team size; leftovers go to the smallest team with room, opening a new team once all are full.
+ */
+@Slf4j
+public class FullCourseStage implements FormationStage {
+
+    @Override
+    public String getName() {
+        return "full-course";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        int teamSize = context.getTeamSize();
+        List<Student> fullStudents = context.unassignedStudents(AdvancedCourseStage::isFullCourse);
+
+        int fullTeamCount = Math.max(1, (fullStudents.size() + teamSize - 1) / teamSize);
+
+        List<Team> fullTeams = new ArrayList<>();
+        for (int i = 0; i < fullTeamCount; i++) {
+            fullTeams.add(context.createTeam("Full Course Team " + (i + 1)));
+        }
+
+        // Split full course students by track, in random order
+        Deque<Student> sdetStudents = shuffledTrack(fullStudents, Track.SDET, context);
+        Deque<Student> daStudents = shuffledTrack(fullStudents, Track.DA, context);
+        Deque<Student> dvlprStudents = shuffledTrack(fullStudents, Track.DVLPR, context);
+        Deque<Student> smpoStudents = shuffledTrack(fullStudents, Track.SMPO, context);
+
+        log.debug("Full course: {} SDET students, {} DA students, {} DVLPR students, {} SMPO students",
+                sdetStudents.size(), daStudents.size(), dvlprStudents.size(), smpoStudents.size());
+
+        // One DVLPR and one SMPO per team, if there are enough for every team
+        if (dvlprStudents.size() >= fullTeamCount) {
+            for (Team team : fullTeams) {
+                context.place(dvlprStudents.poll(), team);
+            }
+        }
+        if (smpoStudents.size() >= fullTeamCount) {
+            for (Team team : fullTeams) {
+                context.place(smpoStudents.poll(), team);
+            }
+        }
+
+        // Basic strategy: try to assign equal numbers of each track to each team
+        // While ensuring we don't exceed the maximum team size limit
+        for (int i = 0; i < fullTeamCount; i++) {
+            Team team = fullTeams.get(i);
+
+            int remainingSpace = teamSize - team.getSize();
+            if (remainingSpace <= 0) {
+                continue; // Skip this team if it's already at max capacity
+            }
+
+            // Expected number of SDET and DA per team, from the students still to place
+            int sdetPerTeam = sdetStudents.size() / fullTeamCount;
+            int daPerTeam = daStudents.size() / fullTeamCount;
+
+            // Add extra student to some teams if division isn't even
+            if (i < sdetStudents.size() % fullTeamCount) {
+                sdetPerTeam++;
+            }
+
+            if (i < daStudents.size() % fullTeamCount) {
+                daPerTeam++;
+            }
+
+            // Make sure we don't exceed the team size limit with SDET + DA
+            if (sdetPerTeam + daPerTeam > remainingSpace) {
+                // Adjust numbers proportionally if they exceed the limit
+                int totalNeeded = sdetPerTeam + daPerTeam;
+                double proportion = (double) remainingSpace / totalNeeded;
+
+                // Ensure at least one of each if possible
+                int newSdetPerTeam = Math.max(1, (int) Math.round(sdetPerTeam * proportion));
+                int newDaPerTeam = Math.max(1, (int) Math.round(daPerTeam * proportion));
+
+                // Final check to ensure we don't exceed the limit
+                if (newSdetPerTeam + newDaPerTeam > remainingSpace) {
+                    // If still over, reduce the larger group by the excess
+                    int excess = (newSdetPerTeam + newDaPerTeam) - remainingSpace;
+                    if (newSdetPerTeam >= newDaPerTeam) {
+                        newSdetPerTeam -= excess;
+                    } else {
+                        newDaPerTeam -= excess;
+                    }
+                }
+
+                sdetPerTeam = newSdetPerTeam;
+                daPerTeam = newDaPerTeam;
+            }
+
+            for (int j = 0; j < sdetPerTeam && !sdetStudents.isEmpty(); j++) {
+                context.place(sdetStudents.poll(), team);
+            }
+
+            for (int j = 0; j < daPerTeam && !daStudents.isEmpty(); j++) {
+                context.place(daStudents.poll(), team);
+            }
+        }
+
+        // If any students remain, distribute them to teams with fewest members
+        // while respecting the team size limit
+        List<Student> remainingStudents = new ArrayList<>();
+        remainingStudents.addAll(sdetStudents);
+        remainingStudents.addAll(daStudents);
+        remainingStudents.addAll(dvlprStudents);
+        remainingStudents.addAll(smpoStudents);
+
+        // Teams below max size, smallest first; new teams can add at most one per student
+        TeamAllocator allocator = new TeamAllocator(fullTeams.size() + remainingStudents.size());
+        for (int i = 0; i < fullTeams.size(); i++) {
+            if (fullTeams.get(i).getSize() < teamSize) {
+                allocator.offer(i, fullTeams.get(i).getSize());
+            }
+        }
+
+        for (Student student : remainingStudents) {
+            int targetIndex = allocator.peek();
+
+            // If all teams are at capacity, create a new team
+            if (targetIndex < 0) {
+                targetIndex = fullTeams.size();
+                fullTeams.add(context.createTeam("Full Course Team " + (targetIndex + 1)));
+            }
+
+            Team targetTeam = fullTeams.get(targetIndex);
+            context.place(student, targetTeam);
+
+            if (targetTeam.getSize() >= teamSize) {
+                allocator.remove(targetIndex);
+            } else {
+                allocator.offer(targetIndex, targetTeam.getSize());
+            }
+        }
+    }
+
+    private static Deque<Student> shuffledTrack(List<Student> students, Track track, FormationContext context) {
+        List<Student> trackStudents = students.stream()
+                .filter(s -> s.getProfile().getTrack() == track)
+                .collect(Collectors.toList());
+        context.shuffle(trackStudents);
+        return new ArrayDeque<>(trackStudents);
+    }
+}
@@ -0,0 +1,50 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.Team;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Default handling for other event types: students dealt out at random over 5-member teams
+ */
+@Component
+public class GenericStrategy implements TeamFormationStrategy {
+
+    private static final int TEAM_SIZE = 5;
+
+    @Override
+    public Set<EventType> getEventTypes() {
+        return EnumSet.of(EventType.RECIPE_SCRAPING_HACKATHON);
+    }
+
+    @Override
+    public int getTeamSize() {
+        return TEAM_SIZE;
+    }
+
+    @Override
+    public List<FormationStage> getStages(EventType eventType) {
+        return Arrays.asList(
+                new TeamSetupStage(TeamSetupStage.Sizing.CEILING, "Team "),
+                new RoundRobinStage(),
+                new MemberCountStatisticsStage());
+    }
+
+    @Override
+    public String summarize(EventType eventType, FormationTotals totals) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Created %d teams\n", totals.getTeams()));
+        summary.append(String.format("Total students: %d\n", totals.getStudents()));
+
+        if (totals.getUnassigned() > 0) {
+            summary.append(String.format("Unassigned students: %d\n", totals.getUnassigned()));
+        }
+
+        return summary.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Team;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records track, working status, hackathon experience and time zone counts on each team
+ */
+@Slf4j
+public class HackathonStatisticsStage implements TeamStatisticsStage {
+
+    private final String experienceLabel;
+
+    /**
+     * @param experienceLabel Label for the previous hackathon count, e.g. "Previous API Hackathon"
+     */
+    public HackathonStatisticsStage(String experienceLabel) {
+        this.experienceLabel = experienceLabel;
+    }
+
+    @Override
+    public String getName() {
+        return "statistics";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        for (Team team : context.getTeams()) {
+            describe(team);
+        }
+
+        // Team sizes for verification, one line per team
+        if (log.isTraceEnabled()) {
+            for (int i = 0; i < context.getTeams().size(); i++) {
+                log.trace("Team {}: {} members", i + 1, context.getTeams().get(i).getSize());
+            }
+        }
+    }
+
+    @Override
+    public void describe(Team team) {
+        if (team.getMembers().isEmpty()) {
+            return;
+        }
+
+        StringBuilder timeZoneStats = new StringBuilder();
+        team.getTimeZoneCounts().forEach((tz, count) ->
+                timeZoneStats.append(tz).append(": ").append(count).append(", "));
+
+        team.setStatistics(String.format("SDET: %d, DA: %d, DVLPR: %d, Working: %d, %s: %d, TimeZones: %s Total: %d",
+            team.countByTrack("SDET"),
+            team.countByTrack("DA"),
+            team.countByTrack("DVLPR"),
+            team.getWorkingCount(),
+            experienceLabel,
+            team.getPreviousHackathonCount(),
+            timeZoneStats.length() > 0 ? timeZoneStats.substring(0, timeZoneStats.length() - 2) : "None",
+            team.getSize()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.Team;
+import com.teamformation.model.Track;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Selenium Hackathon: evenly sized 5-member teams balanced by hackathon experience and working
+ * status, with the remaining students grouped by time zone
+ */
+@Component
+public class HackathonStrategy implements TeamFormationStrategy {
+
+    private static final int HACKATHON_TEAM_SIZE = 5; // Hackathons use 5-member teams
+
+    private final int refinementIterationsPerStudent;
+    private final long refinementMaxIterations;
+    private final long refinementTimeBudgetMillis;
+
+    public HackathonStrategy() {
+        this(SwapRefinementStage.DEFAULT_ITERATIONS_PER_STUDENT, SwapRefinementStage.DEFAULT_MAX_ITERATIONS,
+                SwapRefinementStage.DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    /**
+     * @param refinementIterationsPerStudent Swap refinement budget per student, 0 to skip refinement
+     * @param refinementMaxIterations Swap refinement budget per formation, 0 for no limit
+     * @param refinementTimeBudgetMillis Wall-clock limit for swap refinement, 0 for none
+     */
+    @Autowired
+    public HackathonStrategy(
+            @Value("${teamformation.refinement.iterations-per-student:" + SwapRefinementStage.DEFAULT_ITERATIONS_PER_STUDENT + "}") int refinementIterationsPerStudent,
+            @Value("${teamformation.refinement.max-iterations:" + SwapRefinementStage.DEFAULT_MAX_ITERATIONS + "}") long refinementMaxIterations,
+            @Value("${teamformation.refinement.time-budget-ms:" + SwapRefinementStage.DEFAULT_TIME_BUDGET_MILLIS + "}") long refinementTimeBudgetMillis) {
+        this.refinementIterationsPerStudent = refinementIterationsPerStudent;
+        this.refinementMaxIterations = refinementMaxIterations;
+        this.refinementTimeBudgetMillis = refinementTimeBudgetMillis;
+    }
+
+    @Override
+    public Set<EventType> getEventTypes() {
+        return EnumSet.of(EventType.SELENIUM_HACKATHON);
+    }
+
+    @Override
+    public int getTeamSize() {
+        return HACKATHON_TEAM_SIZE;
+    }
+
+    @Override
+    public List<FormationStage> getStages(EventType eventType) {
+        return Arrays.asList(
+                new TeamSetupStage(TeamSetupStage.Sizing.BALANCED, "Team "),
+                BalanceStage.previousHackathon(),
+                BalanceStage.working(),
+                new TimeZoneStage(),
+                new FillRemainingStage(),
+                new SwapRefinementStage(refinementIterationsPerStudent, refinementMaxIterations, refinementTimeBudgetMillis),
+                new HackathonStatisticsStage("Previous Hackathon"));
+    }
+
+    @Override
+    public String summarize(EventType eventType, FormationTotals totals) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Created %d teams for %s\n", totals.getTeams(), eventType.getDisplayName()));
+        summary.append(String.format("Total students: %d\n", totals.getStudents()));
+
+        summary.append(String.format("Distribution - SDET: %d, DA: %d, Working: %d\n",
+                totals.track(Track.SDET), totals.track(Track.DA), totals.getWorking()));
+
+        if (totals.getUnassigned() > 0) {
+            summary.append(String.format("Unassigned students: %d\n", totals.getUnassigned()));
+        }
+
+        return summary.toString();
+    }
+}
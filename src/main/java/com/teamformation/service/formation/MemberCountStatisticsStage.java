@@ -0,0 +1,26 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Team;
+
+/**
+ * Records the member count on each team
+ */
+public class MemberCountStatisticsStage implements TeamStatisticsStage {
+
+    @Override
+    public String getName() {
+        return "statistics";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        for (Team team : context.getTeams()) {
+            describe(team);
+        }
+    }
+
+    @Override
+    public void describe(Team team) {
+        team.setStatistics(String.format("Members: %d", team.getSize()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+import com.teamformation.model.StudentProfile;
+import com.teamformation.model.Track;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-oriented copy of the students' formation attributes, one primitive array per attribute
+ * indexed by roster position. Built once per formation and shared, read-only, by all attempts,
+ * so the scoring and refinement loops scan flat arrays instead of walking student objects.
+ */
+public final class Roster {
+
+    // Balanced attributes, one bit each: the known tracks (by Track ordinal), previous hackathon and working
+    static final int BALANCED_ATTRIBUTES = 6;
+    static final int PREVIOUS_HACKATHON_BIT = 4;
+    static final int WORKING_BIT = 5;
+
+    private final List<Student> students;
+    private final Map<Student, Integer> positions;
+
+    final byte[] track;
+    final byte[] timeZone;          // TimeZoneGroup ordinal, -1 if none given
+    final byte[] balanced;          // BALANCED_ATTRIBUTES bits
+    final int[] batchTrackId;       // Dense ID of the batch and track, -1 if either is missing
+    final int batchTracks;          // Number of distinct batch/track IDs
+
+    private Roster(List<Student> students) {
+        int size = students.size();
+        this.students = Collections.unmodifiableList(students);
+        this.positions = new IdentityHashMap<>(size);
+        this.track = new byte[size];
+        this.timeZone = new byte[size];
+        this.balanced = new byte[size];
+        this.batchTrackId = new int[size];
+
+        Map<String, Integer> batchTrackIds = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Student student = students.get(i);
+            StudentProfile profile = student.getProfile();
+            positions.putIfAbsent(student, i);
+
+            track[i] = (byte) profile.getTrack().ordinal();
+            timeZone[i] = (byte) (profile.getTimeZone() != null ? profile.getTimeZone().ordinal() : -1);
+
+            int bits = profile.getTrack() != Track.OTHER ? 1 << profile.getTrack().ordinal() : 0;
+            if (profile.isPreviousHackathon()) {
+                bits |= 1 << PREVIOUS_HACKATHON_BIT;
+            }
+            if (profile.isWorking()) {
+                bits |= 1 << WORKING_BIT;
+            }
+            balanced[i] = (byte) bits;
+
+            batchTrackId[i] = profile.getBatchTrackKey() == null ? -1 :
+                    batchTrackIds.computeIfAbsent(profile.getBatchTrackKey(), key -> batchTrackIds.size());
+        }
+        this.batchTracks = batchTrackIds.size();
+    }
+
+    public static Roster of(List<Student> students) {
+        return new Roster(students);
+    }
+
+    public int size() {
+        return students.size();
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public Student student(int position) {
+        return students.get(position);
+    }
+
+    /**
+     * Position of the student on the roster (its first, if listed twice), or -1 if not on it
+     */
+    public int positionOf(Student student) {
+        Integer position = positions.get(student);
+        return position != null ? position : -1;
+    }
+
+    /**
+     * A fresh student-to-team column with every student unassigned
+     */
+    int[] unassigned() {
+        int[] teamOf = new int[students.size()];
+        Arrays.fill(teamOf, -1);
+        return teamOf;
+    }
+}
@@ -0,0 +1,190 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.TeamFormationResult;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where every student of a formation is and how its teams stand, kept from one roster update to the next
+ * so that an update only touches the students and teams it names. The index is built once from a result,
+ * on the result's first update; each update then changes it in place and hands it on with the updated
+ * result, so a chain of updates never scans the cohort again.
+ * <p>
+ * Teams keep their slot for the life of the index: a team that empties stays in its slot, in case a
+ * backfill refills it, and is only left out of the teams of the results.
+ */
+public final class RosterUpdateIndex {
+
+    // Slot of students in the unassigned list
+    static final int UNASSIGNED = -1;
+
+    private final List<Team> slots;
+
+    // Normalized email to the slots of the students with it; more than one only if the roster repeats an email
+    private final Map<String, int[]> locations = new HashMap<>();
+
+    private final Map<String, PlacementGroup> groups = new HashMap<>();
+    private final PlacementGroup[] groupOf;
+    private final FormationTotals totals;
+    private final BalanceScoreTracker score;
+
+    /**
+     * Indexes the teams and unassigned students of the result
+     */
+    public RosterUpdateIndex(TeamFormationStrategy strategy, TeamFormationResult result) {
+        this.slots = new ArrayList<>(result.getTeams());
+        this.totals = FormationTotals.of(slots, result.getUnassignedStudents());
+        this.score = new BalanceScoreTracker(totals, result.getBalanceScore());
+
+        groupOf = new PlacementGroup[slots.size()];
+        for (int slot = 0; slot < slots.size(); slot++) {
+            Team team = slots.get(slot);
+            groupOf[slot] = groups.computeIfAbsent(strategy.placementGroup(team), key -> new PlacementGroup(slots.size()));
+            groupOf[slot].offer(slot, team.getSize());
+            if (team.getSize() == 0) {
+                totals.teamsChanged(-1);
+            }
+            for (Student member : team.getMembers()) {
+                locate(member.getEmail(), slot);
+            }
+        }
+        for (Student student : result.getUnassignedStudents()) {
+            locate(student.getEmail(), UNASSIGNED);
+        }
+    }
+
+    /**
+     * Teams with members, in slot order, for the updated result
+     */
+    public List<Team> teams() {
+        List<Team> teams = new ArrayList<>(totals.getTeams());
+        for (Team team : slots) {
+            if (team.getSize() > 0) {
+                teams.add(team);
+            }
+        }
+        return teams;
+    }
+
+    public FormationTotals totals() {
+        return totals;
+    }
+
+    /**
+     * Balance score of the teams with members
+     */
+    public double balanceScore() {
+        return score.score();
+    }
+
+    Team team(int slot) {
+        return slots.get(slot);
+    }
+
+    /**
+     * Replaces the team in its slot, e.g. with a copy about to be changed
+     */
+    void replace(int slot, Team team) {
+        slots.set(slot, team);
+    }
+
+    BalanceScoreTracker score() {
+        return score;
+    }
+
+    /**
+     * Slots of the students with the email, null if there are none
+     */
+    int[] locationsOf(String email) {
+        return locations.get(AssignmentIndex.normalize(email));
+    }
+
+    boolean contains(String email) {
+        return locations.containsKey(AssignmentIndex.normalize(email));
+    }
+
+    /**
+     * Records a student with the email in the slot
+     */
+    void locate(String email, int slot) {
+        locations.merge(AssignmentIndex.normalize(email), new int[] {slot}, RosterUpdateIndex::concat);
+    }
+
+    /**
+     * Forgets every student with the email
+     */
+    void forget(String email) {
+        locations.remove(AssignmentIndex.normalize(email));
+    }
+
+    /**
+     * Records one student with the email moving between slots
+     */
+    void move(String email, int from, int to) {
+        int[] slotsOfEmail = locationsOf(email);
+        for (int i = 0; i < slotsOfEmail.length; i++) {
+            if (slotsOfEmail[i] == from) {
+                slotsOfEmail[i] = to;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Up to {@code limit} of the smallest teams of the placement group, smallest first; none if the group has no teams
+     */
+    int[] smallest(String group, int limit) {
+        PlacementGroup placementGroup = groups.get(group);
+        return placementGroup != null ? placementGroup.smallest.peek(limit) : new int[0];
+    }
+
+    /**
+     * Up to {@code limit} of the largest teams in the slot's placement group, largest first
+     */
+    int[] largestBeside(int slot, int limit) {
+        return groupOf[slot].largest.peek(limit);
+    }
+
+    /**
+     * Re-sorts the team after its size changed, and counts it in or out of the teams as it fills or empties
+     */
+    void resized(int slot, int sizeBefore) {
+        int size = slots.get(slot).getSize();
+        groupOf[slot].offer(slot, size);
+        if (sizeBefore == 0 && size > 0) {
+            totals.teamsChanged(1);
+        } else if (sizeBefore > 0 && size == 0) {
+            totals.teamsChanged(-1);
+        }
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] both = new int[a.length + b.length];
+        System.arraycopy(a, 0, both, 0, a.length);
+        System.arraycopy(b, 0, both, a.length, b.length);
+        return both;
+    }
+
+    /**
+     * Teams students may be placed in or moved between, by size in both directions
+     */
+    private static final class PlacementGroup {
+        private final TeamAllocator smallest;
+        private final TeamAllocator largest;    // keyed by negated size
+
+        PlacementGroup(int numTeams) {
+            smallest = new TeamAllocator(numTeams);
+            largest = new TeamAllocator(numTeams);
+        }
+
+        void offer(int team, int size) {
+            smallest.offer(team, size);
+            largest.offer(team, -size);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.RosterIssue;
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.ValidationReport;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies a roster update to formed teams without forming them again.
+ * Departing students leave their teams, newcomers join the team the strategy prices cheapest, and teams
+ * left two or more members short of the largest team are backfilled with the single member whose move
+ * lowers the balance score most. Students are found through the formation's {@link RosterUpdateIndex},
+ * and each newcomer and each move looks at no more than {@link #SEARCH_LIMIT} of the smallest (or largest)
+ * teams of its placement group, so the work grows with the update rather than with the number of teams.
+ * <p>
+ * The index is changed in place, but a team is copied before its members first change, so the teams of
+ * the formation the index was taken from are never modified.
+ */
+@Slf4j
+public class RosterUpdatePlacer {
+
+    /**
+     * Teams a newcomer or a backfill move looks at, smallest or largest first
+     */
+    static final int SEARCH_LIMIT = 16;
+
+    private static final int UNASSIGNED = RosterUpdateIndex.UNASSIGNED;
+
+    private final TeamFormationStrategy strategy;
+    private final RosterUpdateIndex index;
+    private final List<Student> unassignedStudents;
+
+    private final BitSet changed = new BitSet();
+    private final BitSet shortened = new BitSet();
+
+    /**
+     * @param unassignedStudents Unassigned students of the formation, changed in place
+     */
+    public RosterUpdatePlacer(TeamFormationStrategy strategy, RosterUpdateIndex index, List<Student> unassignedStudents) {
+        this.strategy = strategy;
+        this.index = index;
+        this.unassignedStudents = unassignedStudents;
+    }
+
+    /**
+     * Removes the students with the given emails from their teams or the unassigned list; if the roster
+     * repeats an email, every student with it is removed
+     * @return Number of students removed
+     */
+    public int remove(List<String> emails, ValidationReport report) {
+        int removed = 0;
+        Set<String> unassignedLeaving = new HashSet<>();
+        for (int i = 0; i < emails.size(); i++) {
+            String email = emails.get(i);
+            int[] slots = index.locationsOf(email);
+            if (slots == null) {
+                report.add(RosterIssue.row(RosterIssue.Kind.UNKNOWN_STUDENT,
+                        "No student with email " + email + " to remove", i));
+                continue;
+            }
+
+            String key = AssignmentIndex.normalize(email);
+            for (int slot : slots) {
+                if (slot == UNASSIGNED) {
+                    unassignedLeaving.add(key);
+                    continue;
+                }
+                Team team = writable(slot);
+                int sizeBefore = team.getSize();
+                for (Student member : new ArrayList<>(team.getMembers())) {
+                    if (AssignmentIndex.normalize(member.getEmail()).equals(key)) {
+                        index.score().leaving(team, member);
+                        team.removeMember(member);
+                        removed++;
+                    }
+                }
+                index.resized(slot, sizeBefore);
+                shortened.set(slot);
+            }
+            index.forget(email);
+        }
+
+        // Unassigned students leave in one pass over the list
+        if (!unassignedLeaving.isEmpty()) {
+            int before = unassignedStudents.size();
+            unassignedStudents.removeIf(student -> unassignedLeaving.contains(AssignmentIndex.normalize(student.getEmail())));
+            index.totals().unassignedChanged(unassignedStudents.size() - before);
+            removed += before - unassignedStudents.size();
+        }
+        return removed;
+    }
+
+    /**
+     * Places each new student in the team where it costs least; students no team accepts are left unassigned
+     * @return Number of students added to a team or the unassigned list
+     */
+    public int add(List<Student> students, ValidationReport report) {
+        int added = 0;
+        for (int i = 0; i < students.size(); i++) {
+            Student student = students.get(i);
+            if (student == null || isBlank(student.getEmail()) || isBlank(student.getName())) {
+                report.add(RosterIssue.row(RosterIssue.Kind.INVALID_ROW, "Student has no email or name", i));
+                continue;
+            }
+            if (index.contains(student.getEmail())) {
+                report.add(RosterIssue.row(RosterIssue.Kind.DUPLICATE_EMAIL,
+                        "A student with email " + student.getEmail() + " is already in the formation", i));
+                continue;
+            }
+
+            int slot = cheapestTeam(student);
+            if (slot == UNASSIGNED) {
+                unassignedStudents.add(student);
+                index.totals().unassignedChanged(1);
+            } else {
+                Team joined = writable(slot);
+                int sizeBefore = joined.getSize();
+                index.score().joining(joined, student);
+                joined.addMember(student);
+                index.resized(slot, sizeBefore);
+            }
+            index.locate(student.getEmail(), slot);
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Moves members into the teams students left, one at a time from the largest teams of the same group,
+     * while a team is at least two members smaller than a team with a member that may join it and the move
+     * lowers the balance score
+     * @return Number of students moved
+     */
+    public int backfill() {
+        int moves = 0;
+        for (int slot = shortened.nextSetBit(0); slot >= 0; slot = shortened.nextSetBit(slot + 1)) {
+            while (moveInto(slot)) {
+                moves++;
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Teams whose members changed, in slot order; teams the update emptied included
+     */
+    public List<Team> changedTeams() {
+        List<Team> changedTeams = new ArrayList<>();
+        for (int slot = changed.nextSetBit(0); slot >= 0; slot = changed.nextSetBit(slot + 1)) {
+            changedTeams.add(index.team(slot));
+        }
+        return changedTeams;
+    }
+
+    /**
+     * Lowest-cost team among the smallest teams of the student's group that accept the student, or
+     * UNASSIGNED if none does. Like the formation stages, a newcomer fills the smallest team with room,
+     * so only teams as small as the first team that accepts the student compete on cost.
+     */
+    private int cheapestTeam(Student student) {
+        int best = UNASSIGNED;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int slot : index.smallest(strategy.placementGroup(student), SEARCH_LIMIT)) {
+            if (best != UNASSIGNED && index.team(slot).getSize() > index.team(best).getSize()) {
+                break;
+            }
+            double cost = strategy.joinCost(index.team(slot), student);
+            if (cost < bestCost) {
+                best = slot;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Moves the member of the largest teams of the target's group, at least two larger than the target,
+     * whose move lowers the balance score most, if any
+     * @return true if a member was moved
+     */
+    private boolean moveInto(int target) {
+        Team targetTeam = index.team(target);
+        int donor = UNASSIGNED;
+        Student mover = null;
+        double bestChange = 0;
+        for (int slot : index.largestBeside(target, SEARCH_LIMIT)) {
+            int size = index.team(slot).getSize();
+            if (size < targetTeam.getSize() + 2 || (donor != UNASSIGNED && size < index.team(donor).getSize())) {
+                break;
+            }
+
+            Team donorTeam = index.team(slot);
+            for (Student member : donorTeam.getMembers()) {
+                double change = strategy.joinCost(targetTeam, member) - strategy.leaveCost(donorTeam, member);
+                if (change < bestChange) {
+                    donor = slot;
+                    mover = member;
+                    bestChange = change;
+                }
+            }
+        }
+
+        if (mover == null) {
+            return false;
+        }
+        Team donorTeam = writable(donor);
+        targetTeam = writable(target);
+        int donorSize = donorTeam.getSize();
+        int targetSize = targetTeam.getSize();
+        index.score().leaving(donorTeam, mover);
+        donorTeam.removeMember(mover);
+        index.score().joining(targetTeam, mover);
+        targetTeam.addMember(mover);
+        index.move(mover.getEmail(), donor, target);
+        index.resized(donor, donorSize);
+        index.resized(target, targetSize);
+        log.trace("Moved {} from {} to {}", mover.getEmail(), donorTeam.getName(), targetTeam.getName());
+        return true;
+    }
+
+    /**
+     * The team in the slot, copied into the index first if the update has not changed it yet
+     */
+    private Team writable(int slot) {
+        Team team = index.team(slot);
+        if (!changed.get(slot)) {
+            team = new Team(team.getName(), team.getMembers(), team.getStatistics());
+            index.replace(slot, team);
+            changed.set(slot);
+        }
+        return team;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,44 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deals the students out over the teams in random order, one at a time. A student whose batch and
+ * track a team already has goes to another team of the same size instead, if one has neither.
+ */
+public class RoundRobinStage implements FormationStage {
+
+    @Override
+    public String getName() {
+        return "round-robin";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        List<Team> teams = context.getTeams();
+        List<Student> students = new ArrayList<>(context.getStudents());
+
+        // Shuffle for random distribution
+        context.shuffle(students);
+
+        // Smallest team first, lowest index on ties: the teams in turn, as long as no student is passed on
+        int[] sizes = new int[teams.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = teams.get(i).getSize();
+        }
+        TeamAllocator allocator = TeamAllocator.of(sizes);
+
+        for (Student student : students) {
+            int batchTrack = context.batchTrackOf(student);
+            double smallest = allocator.loadOf(allocator.peek());
+            int team = allocator.peek(t -> allocator.loadOf(t) == smallest &&
+                    !context.hasBatchTrack(t, batchTrack), BatchTrackBitmap.SEARCH_LIMIT);
+            context.place(student, teams.get(team));
+            allocator.adjust(team, 1);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.CourseType;
+import com.teamformation.model.EventType;
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.Track;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SQL Bootcamp: separate 5-member Advanced Course teams and 7-member Full Course teams
+ */
+@Component
+public class SqlBootcampStrategy implements TeamFormationStrategy {
+
+    private static final int SQL_BOOTCAMP_FULL_COURSE_TEAM_SIZE = 7; // SQL Bootcamp Full Course uses 7-member teams
+
+    @Override
+    public Set<EventType> getEventTypes() {
+        return EnumSet.of(EventType.SQL_BOOTCAMP);
+    }
+
+    @Override
+    public int getTeamSize() {
+        return SQL_BOOTCAMP_FULL_COURSE_TEAM_SIZE;
+    }
+
+    @Override
+    public List<FormationStage> getStages(EventType eventType) {
+        return Arrays.asList(
+                new AdvancedCourseStage(),
+                new FullCourseStage(),
+                new TrackStatisticsStage());
+    }
+
+    /**
+     * Students only join teams of their own course, which are told apart by name
+     */
+    @Override
+    public double joinCost(Team team, Student student) {
+        CourseType courseType = student.getProfile().getCourseType();
+        boolean ownCourse = courseType == CourseType.ADVANCED
+                ? team.getName().startsWith("Advanced")
+                : courseType == CourseType.FULL_COURSE && team.getName().startsWith("Full Course");
+        return ownCourse ? FormationScorer.joinCost(team, student) : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Teams are grouped by the course in their name, students by their course
+     */
+    @Override
+    public String placementGroup(Team team) {
+        if (team.getName().startsWith("Advanced")) {
+            return CourseType.ADVANCED.name();
+        }
+        return team.getName().startsWith("Full Course") ? CourseType.FULL_COURSE.name() : CourseType.OTHER.name();
+    }
+
+    @Override
+    public String placementGroup(Student student) {
+        return student.getProfile().getCourseType().name();
+    }
+
+    @Override
+    public String summarize(EventType eventType, FormationTotals totals) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Created %d teams for SQL Bootcamp\n", totals.getTeams()));
+        summary.append(String.format("Total students: %d\n", totals.getStudents()));
+
+        summary.append(String.format("Distribution - SDET: %d, DA: %d, Advanced: %d\n",
+                totals.track(Track.SDET), totals.track(Track.DA), totals.courseType(CourseType.ADVANCED)));
+
+        if (totals.getUnassigned() > 0) {
+            summary.append(String.format("Unassigned students: %d\n", totals.getUnassigned()));
+        }
+
+        return summary.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.ExpertiseLevel;
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.Track;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SQL and Python Hackathons: 5-member teams balanced by expertise level first, then by track
+ */
+@Component
+public class SqlHackathonStrategy implements TeamFormationStrategy {
+
+    private static final int HACKATHON_TEAM_SIZE = 5; // Hackathons use 5-member teams
+
+    @Override
+    public Set<EventType> getEventTypes() {
+        return EnumSet.of(EventType.SQL_HACKATHON, EventType.PYTHON_HACKATHON);
+    }
+
+    @Override
+    public int getTeamSize() {
+        return HACKATHON_TEAM_SIZE;
+    }
+
+    @Override
+    public List<FormationStage> getStages(EventType eventType) {
+        return Arrays.asList(
+                new TeamSetupStage(TeamSetupStage.Sizing.CEILING, SqlHackathonStrategy::teamNamePrefix),
+                CappedBalanceStage.expertise(ExpertiseLevel.ADVANCED),
+                CappedBalanceStage.expertise(ExpertiseLevel.INTERMEDIATE),
+                CappedBalanceStage.expertise(ExpertiseLevel.BEGINNER),
+                new TrackFillStage(),
+                new ExpertiseStatisticsStage());
+    }
+
+    /**
+     * Team names follow the course type of the first student on the roster
+     */
+    private static String teamNamePrefix(FormationContext context) {
+        String courseType = context.getStudents().get(0).getCourseType();
+        if (courseType != null) {
+            if (courseType.contains("Python")) {
+                return "Python Team ";
+            } else if (courseType.contains("SQL")) {
+                return "SQL Team ";
+            }
+        }
+        return "Hackathon Team ";
+    }
+
+    /**
+     * Expertise levels are balanced before tracks, so they are priced like the other balanced counts
+     */
+    @Override
+    public double joinCost(Team team, Student student) {
+        ExpertiseLevel level = student.getProfile().getExpertise();
+        return FormationScorer.joinCost(team, student) + 2 * team.countByExpertise(level) + 1;
+    }
+
+    @Override
+    public double leaveCost(Team team, Student student) {
+        ExpertiseLevel level = student.getProfile().getExpertise();
+        return FormationScorer.leaveCost(team, student) + 2 * team.countByExpertise(level) - 1;
+    }
+
+    @Override
+    public String summarize(EventType eventType, FormationTotals totals) {
+        String eventName = eventType == EventType.PYTHON_HACKATHON ? "Python" : "SQL";
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(eventName).append(" Hackathon Team Formation Results:\n");
+        summary.append("Total teams: ").append(totals.getTeams()).append("\n");
+        summary.append("Total assigned students: ").append(totals.getAssigned()).append("\n");
+
+        if (totals.getUnassigned() > 0) {
+            summary.append("Unassigned students: ").append(totals.getUnassigned()).append("\n");
+        }
+
+        // Expertise level distribution; students without a level count as Beginner
+        summary.append("\nExpertise Distribution:\n");
+        for (ExpertiseLevel level : new ExpertiseLevel[] {ExpertiseLevel.ADVANCED, ExpertiseLevel.INTERMEDIATE, ExpertiseLevel.BEGINNER}) {
+            summary.append(level.getDisplayName()).append(": ").append(totals.expertise(level)).append("\n");
+        }
+
+        if (eventType == EventType.PYTHON_HACKATHON) {
+            // Track distribution
+            summary.append("\nTrack Distribution:\n");
+            for (Track track : FormationScorer.TRACKS) {
+                summary.append(track.name()).append(": ").append(totals.track(track)).append("\n");
+            }
+        }
+
+        return summary.toString();
+    }
+}
@@ -0,0 +1,284 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Team;
+import com.teamformation.util.TimeZones;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Improves the greedy formation by simulated annealing over member swaps between teams.
+ * Swaps keep team sizes unchanged; each candidate is scored by the change it makes to the
+ * {@link FormationScorer} objective (track, experience and working balance, time zone
+ * compatibility, batch/track conflicts), computed from per-team counters in O(team size).
+ * Runs until the iteration budget is spent, then keeps the best formation reached on the way, which is
+ * never worse than the one it found.
+ * The budget is counted in candidate swaps, so the same seed always gives the same teams; an optional
+ * wall-clock limit stops earlier on slow machines at the cost of that reproducibility.
+ */
+@Slf4j
+public class SwapRefinementStage implements FormationStage {
+
+    // Counted attributes: the four tracks, previous hackathon, working
+    private static final int ATTRIBUTES = Roster.BALANCED_ATTRIBUTES;
+    private static final int TIME_ZONES = TimeZones.GROUPS.size();
+
+    static final int DEFAULT_ITERATIONS_PER_STUDENT = 200;
+    static final long DEFAULT_MAX_ITERATIONS = 1_000_000;
+    static final long DEFAULT_TIME_BUDGET_MILLIS = 0;
+
+    private static final double START_TEMPERATURE = 2.0;
+    private static final double END_TEMPERATURE = 0.01;
+
+    // How often the clock is checked, in iterations
+    private static final int CLOCK_INTERVAL = 1024;
+
+    private final int iterationsPerStudent;
+    private final long maxIterations;
+    private final long timeBudgetMillis;
+
+    /**
+     * @param iterationsPerStudent Candidate swaps per placed student; 0 disables refinement
+     * @param maxIterations Candidate swaps per formation at most, 0 for no limit
+     * @param timeBudgetMillis Wall-clock limit, 0 for none; results then depend on machine speed
+     */
+    public SwapRefinementStage(int iterationsPerStudent, long maxIterations, long timeBudgetMillis) {
+        this.iterationsPerStudent = iterationsPerStudent;
+        this.maxIterations = maxIterations;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    @Override
+    public String getName() {
+        return "swap-refinement";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        List<Team> teams = context.getTeams();
+        Roster roster = context.getRoster();
+        int numTeams = teams.size();
+
+        // Work on a copy of the context's student-to-team column, by roster position
+        int[] originalTeam = context.getTeamOf().clone();
+        int[] teamOf = originalTeam.clone();
+        int[] teamSizes = new int[numTeams];
+        int numStudents = 0;
+        for (int team : teamOf) {
+            if (team >= 0) {
+                teamSizes[team]++;
+                numStudents++;
+            }
+        }
+
+        long iterations = (long) iterationsPerStudent * numStudents;
+        if (maxIterations > 0) {
+            iterations = Math.min(iterations, maxIterations);
+        }
+        if (numTeams < 2 || iterations <= 0) {
+            return;
+        }
+
+        byte[] balanced = roster.balanced;
+        byte[] timeZone = roster.timeZone;
+        int[] batchTrack = roster.batchTrackId;
+
+        // Placed roster positions, the member slots of each team and the slot of each student
+        int[] placed = new int[numStudents];
+        int[] slotOf = new int[teamOf.length];
+        int[][] members = new int[numTeams][];
+        int[][] attributeCounts = new int[numTeams][ATTRIBUTES];
+        int[][] timeZoneCounts = new int[numTeams][TIME_ZONES];
+        for (int t = 0; t < numTeams; t++) {
+            members[t] = new int[teamSizes[t]];
+        }
+
+        int[] filled = new int[numTeams];
+        int p = 0;
+        for (int s = 0; s < teamOf.length; s++) {
+            int t = teamOf[s];
+            if (t < 0) {
+                continue;
+            }
+            placed[p++] = s;
+            slotOf[s] = filled[t];
+            members[t][filled[t]++] = s;
+
+            for (int bits = balanced[s]; bits != 0; bits &= bits - 1) {
+                attributeCounts[t][Integer.numberOfTrailingZeros(bits)]++;
+            }
+            if (timeZone[s] >= 0) {
+                timeZoneCounts[t][timeZone[s]]++;
+            }
+        }
+
+        // Best formation reached so far, brought up to date from the students moved since it was last reached;
+        // if more moved than there are students it is copied whole instead
+        int[] bestTeamOf = teamOf.clone();
+        int[] movedSinceBest = new int[numStudents];
+        int moved = 0;
+        double bestDelta = 0;
+
+        SplittableRandom random = context.getRandom().split();
+        long deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000L : Long.MAX_VALUE;
+        double temperature = START_TEMPERATURE;
+        double totalDelta = 0;
+        long accepted = 0;
+        long iteration = 0;
+
+        for (; iteration < iterations; iteration++) {
+            if (iteration % CLOCK_INTERVAL == 0) {
+                double progress = (double) iteration / iterations;
+                if (deadline != Long.MAX_VALUE) {
+                    long now = System.nanoTime();
+                    if (now - deadline >= 0) {
+                        break;
+                    }
+                    progress = Math.max(progress, 1 - (double) (deadline - now) / (timeBudgetMillis * 1_000_000L));
+                }
+                // Geometric cooling from the start to the end temperature
+                temperature = START_TEMPERATURE * Math.pow(END_TEMPERATURE / START_TEMPERATURE, progress);
+            }
+
+            int a = placed[random.nextInt(numStudents)];
+            int b = placed[random.nextInt(numStudents)];
+            int teamA = teamOf[a];
+            int teamB = teamOf[b];
+            if (teamA == teamB) {
+                continue;
+            }
+
+            double delta = swapDelta(a, b, teamA, teamB, balanced, timeZone, batchTrack,
+                    members, attributeCounts, timeZoneCounts);
+
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                // Apply the swap to the counters and member slots
+                for (int bits = balanced[a] ^ balanced[b]; bits != 0; bits &= bits - 1) {
+                    int k = Integer.numberOfTrailingZeros(bits);
+                    int d = (balanced[b] >> k & 1) != 0 ? 1 : -1;
+                    attributeCounts[teamA][k] += d;
+                    attributeCounts[teamB][k] -= d;
+                }
+                if (timeZone[a] >= 0) {
+                    timeZoneCounts[teamA][timeZone[a]]--;
+                    timeZoneCounts[teamB][timeZone[a]]++;
+                }
+                if (timeZone[b] >= 0) {
+                    timeZoneCounts[teamB][timeZone[b]]--;
+                    timeZoneCounts[teamA][timeZone[b]]++;
+                }
+                members[teamA][slotOf[a]] = b;
+                members[teamB][slotOf[b]] = a;
+                int slotA = slotOf[a];
+                slotOf[a] = slotOf[b];
+                slotOf[b] = slotA;
+                teamOf[a] = teamB;
+                teamOf[b] = teamA;
+
+                totalDelta += delta;
+                accepted++;
+
+                if (moved + 2 <= movedSinceBest.length) {
+                    movedSinceBest[moved++] = a;
+                    movedSinceBest[moved++] = b;
+                } else {
+                    moved = movedSinceBest.length + 1;
+                }
+                if (totalDelta < bestDelta) {
+                    if (moved > movedSinceBest.length) {
+                        System.arraycopy(teamOf, 0, bestTeamOf, 0, teamOf.length);
+                    } else {
+                        for (int i = 0; i < moved; i++) {
+                            bestTeamOf[movedSinceBest[i]] = teamOf[movedSinceBest[i]];
+                        }
+                    }
+                    bestDelta = totalDelta;
+                    moved = 0;
+                }
+            }
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Swap refinement: {} candidate swaps, {} accepted, objective change {} at the end, {} at best",
+                    iteration, accepted, String.format("%.2f", totalDelta), String.format("%.2f", bestDelta));
+        }
+
+        // Keep the greedy formation if annealing never improved on it
+        if (bestDelta >= 0) {
+            return;
+        }
+
+        for (int s : placed) {
+            if (bestTeamOf[s] != originalTeam[s]) {
+                context.move(roster.student(s), teams.get(originalTeam[s]), teams.get(bestTeamOf[s]));
+            }
+        }
+    }
+
+    /**
+     * Change in the objective from swapping student a (in team A) with student b (in team B)
+     */
+    static double swapDelta(int a, int b, int teamA, int teamB, byte[] balanced, byte[] timeZone,
+                            int[] batchTrack, int[][] members, int[][] attributeCounts, int[][] timeZoneCounts) {
+        double delta = 0;
+
+        // Squared deviations: the mean is unchanged, so only the two teams' squares change
+        for (int bits = balanced[a] ^ balanced[b]; bits != 0; bits &= bits - 1) {
+            int k = Integer.numberOfTrailingZeros(bits);
+            int d = (balanced[b] >> k & 1) != 0 ? 1 : -1;
+            int countA = attributeCounts[teamA][k];
+            int countB = attributeCounts[teamB][k];
+            delta += 2 * d * (countA - countB) + 2;
+        }
+
+        // Incompatible time zone pairs
+        if (timeZone[a] != timeZone[b]) {
+            delta += timeZonePairsDelta(timeZoneCounts[teamA], timeZone[a], timeZone[b]);
+            delta += timeZonePairsDelta(timeZoneCounts[teamB], timeZone[b], timeZone[a]);
+        }
+
+        // Batch/track conflicts
+        if (batchTrack[a] != batchTrack[b]) {
+            int conflicts = 0;
+            if (batchTrack[a] >= 0) {
+                conflicts -= countOthers(members[teamA], batchTrack, batchTrack[a], a) > 0 ? 1 : 0;
+                conflicts += countOthers(members[teamB], batchTrack, batchTrack[a], b) > 0 ? 1 : 0;
+            }
+            if (batchTrack[b] >= 0) {
+                conflicts -= countOthers(members[teamB], batchTrack, batchTrack[b], b) > 0 ? 1 : 0;
+                conflicts += countOthers(members[teamA], batchTrack, batchTrack[b], a) > 0 ? 1 : 0;
+            }
+            delta += FormationScorer.BATCH_CONFLICT_WEIGHT * conflicts;
+        }
+
+        return delta;
+    }
+
+    /**
+     * Change in a team's incompatible pairs when a member in zone out is replaced by one in zone in (-1 for none)
+     */
+    static int timeZonePairsDelta(int[] counts, int out, int in) {
+        int delta = 0;
+        for (int[] pair : FormationScorer.INCOMPATIBLE_TIME_ZONES) {
+            int before = counts[pair[0]] * counts[pair[1]];
+            int first = counts[pair[0]] - (out == pair[0] ? 1 : 0) + (in == pair[0] ? 1 : 0);
+            int second = counts[pair[1]] - (out == pair[1] ? 1 : 0) + (in == pair[1] ? 1 : 0);
+            delta += first * second - before;
+        }
+        return delta;
+    }
+
+    /**
+     * Members of the team other than the excluded one with the given batch/track
+     */
+    private static int countOthers(int[] teamMembers, int[] batchTrack, int key, int excluded) {
+        int count = 0;
+        for (int member : teamMembers) {
+            if (member != excluded && batchTrack[member] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
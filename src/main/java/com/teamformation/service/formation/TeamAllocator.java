@@ -0,0 +1,197 @@
+package com.teamformation.service.formation;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Indexed min-heap of teams (by index) keyed by their current load, used by the stages to pick
+ * the least-loaded eligible team in O(log T) instead of scanning every team per student.
+ * Ties go to the lowest team index, matching a first-minimum linear scan. Teams that stop being
+ * eligible (e.g. full) are removed; a team's load is updated in place after each placement.
+ */
+public class TeamAllocator {
+
+    private final int[] heap;           // team indexes, heap ordered
+    private final int[] position;       // heap slot of each team, -1 if not in the heap
+    private final double[] load;
+    private int size;
+
+    public TeamAllocator(int numTeams) {
+        heap = new int[numTeams];
+        position = new int[numTeams];
+        load = new double[numTeams];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Allocator holding every team with the given loads
+     */
+    public static TeamAllocator of(int[] loads) {
+        TeamAllocator allocator = new TeamAllocator(loads.length);
+        for (int i = 0; i < loads.length; i++) {
+            allocator.load[i] = loads[i];
+            allocator.heap[i] = i;
+            allocator.position[i] = i;
+        }
+        allocator.size = loads.length;
+        for (int i = loads.length / 2 - 1; i >= 0; i--) {
+            allocator.siftDown(i);
+        }
+        return allocator;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int team) {
+        return position[team] >= 0;
+    }
+
+    /**
+     * Least-loaded team, or -1 if no team is eligible
+     */
+    public int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * First team the filter accepts among the {@code limit} least-loaded, in load order; the least-loaded
+     * team if none of them is accepted, or -1 if no team is eligible
+     */
+    public int peek(IntPredicate accept, int limit) {
+        int first = peek();
+        if (first < 0 || accept.test(first)) {
+            return first;
+        }
+
+        // Take teams off the top until one is accepted, then put them back with their loads
+        int[] taken = new int[Math.min(Math.max(limit, 1), size)];
+        int count = 0;
+        int found = -1;
+        taken[count++] = first;
+        remove(first);
+        while (count < taken.length) {
+            int team = heap[0];
+            if (accept.test(team)) {
+                found = team;
+                break;
+            }
+            taken[count++] = team;
+            remove(team);
+        }
+        for (int i = 0; i < count; i++) {
+            offer(taken[i], load[taken[i]]);
+        }
+        return found >= 0 ? found : first;
+    }
+
+    /**
+     * The {@code limit} least-loaded teams, or every team if there are fewer, in load order
+     */
+    public int[] peek(int limit) {
+        int[] least = new int[Math.min(Math.max(limit, 0), size)];
+        for (int i = 0; i < least.length; i++) {
+            least[i] = heap[0];
+            remove(least[i]);
+        }
+        for (int team : least) {
+            offer(team, load[team]);
+        }
+        return least;
+    }
+
+    public double loadOf(int team) {
+        return load[team];
+    }
+
+    /**
+     * Adds the team with the given load, or updates its load if it is already present
+     */
+    public void offer(int team, double newLoad) {
+        if (position[team] < 0) {
+            load[team] = newLoad;
+            heap[size] = team;
+            position[team] = size;
+            siftUp(size++);
+            return;
+        }
+
+        double oldLoad = load[team];
+        load[team] = newLoad;
+        if (newLoad < oldLoad) {
+            siftUp(position[team]);
+        } else {
+            siftDown(position[team]);
+        }
+    }
+
+    /**
+     * Adds delta to the team's load
+     */
+    public void adjust(int team, double delta) {
+        offer(team, load[team] + delta);
+    }
+
+    /**
+     * Removes the team, e.g. once it has no room left
+     */
+    public void remove(int team) {
+        int slot = position[team];
+        if (slot < 0) {
+            return;
+        }
+
+        position[team] = -1;
+        size--;
+        if (slot == size) {
+            return;
+        }
+
+        int last = heap[size];
+        heap[slot] = last;
+        position[last] = slot;
+        siftUp(slot);
+        siftDown(position[last]);
+    }
+
+    private boolean less(int a, int b) {
+        return load[a] < load[b] || (load[a] == load[b] && a < b);
+    }
+
+    private void siftUp(int slot) {
+        int team = heap[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!less(team, heap[parent])) {
+                break;
+            }
+            heap[slot] = heap[parent];
+            position[heap[slot]] = slot;
+            slot = parent;
+        }
+        heap[slot] = team;
+        position[team] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int team = heap[slot];
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], team)) {
+                break;
+            }
+            heap[slot] = heap[child];
+            position[heap[slot]] = slot;
+            slot = child;
+        }
+        heap[slot] = team;
+        position[team] = slot;
+    }
+}
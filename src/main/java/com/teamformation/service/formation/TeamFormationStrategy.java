@@ -0,0 +1,69 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Forms teams for one or more event types.
+ * A strategy declares its team size and the ordered stages it runs; each stage applies one
+ * constraint (experience, working status, track, time zone, ...) in priority order.
+ * Implementations are Spring components and are looked up through {@link TeamFormationStrategyRegistry}.
+ */
+public interface TeamFormationStrategy {
+
+    /**
+     * Event types this strategy forms teams for
+     */
+    Set<EventType> getEventTypes();
+
+    /**
+     * Target number of members per team
+     */
+    int getTeamSize();
+
+    /**
+     * Stages to run, in order, for the given event type
+     */
+    List<FormationStage> getStages(EventType eventType);
+
+    /**
+     * Human readable summary of the formed teams, from their totals
+     */
+    String summarize(EventType eventType, FormationTotals totals);
+
+    /**
+     * Cost of adding the student to a formed team when the roster changes, lower is better;
+     * infinite if the event type does not allow the student on the team
+     */
+    default double joinCost(Team team, Student student) {
+        return FormationScorer.joinCost(team, student);
+    }
+
+    /**
+     * Cost of removing the student from its team when the roster changes; moving a student is worth it
+     * when its join cost for the new team is below its leave cost for the old one
+     */
+    default double leaveCost(Team team, Student student) {
+        return FormationScorer.leaveCost(team, student);
+    }
+
+    /**
+     * Group of teams a student may join or move between when the roster changes. Students are only
+     * placed in teams of their own group, so the teams of other groups are never looked at; by default
+     * all teams and students are in one group.
+     */
+    default String placementGroup(Team team) {
+        return "";
+    }
+
+    /**
+     * Group of teams the student may join when the roster changes
+     */
+    default String placementGroup(Student student) {
+        return "";
+    }
+}
@@ -0,0 +1,48 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.EventType;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds each event type to the strategy that forms its teams.
+ * Event types without a dedicated strategy fall back to {@link GenericStrategy}.
+ */
+@Component
+public class TeamFormationStrategyRegistry {
+
+    private final Map<EventType, TeamFormationStrategy> strategies = new EnumMap<>(EventType.class);
+    private final TeamFormationStrategy fallback = new GenericStrategy();
+
+    public TeamFormationStrategyRegistry(List<TeamFormationStrategy> strategyList) {
+        for (TeamFormationStrategy strategy : strategyList) {
+            for (EventType eventType : strategy.getEventTypes()) {
+                TeamFormationStrategy existing = strategies.put(eventType, strategy);
+                if (existing != null) {
+                    throw new IllegalStateException("Multiple team formation strategies registered for " + eventType
+                            + ": " + existing.getClass().getSimpleName() + " and " + strategy.getClass().getSimpleName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Registry with the built-in strategies, for use outside the Spring context
+     */
+    public static TeamFormationStrategyRegistry withDefaultStrategies() {
+        return new TeamFormationStrategyRegistry(Arrays.asList(
+                new SqlBootcampStrategy(),
+                new SqlHackathonStrategy(),
+                new HackathonStrategy(),
+                new ApiHackathonStrategy(),
+                new GenericStrategy()));
+    }
+
+    public TeamFormationStrategy getStrategy(EventType eventType) {
+        return strategies.getOrDefault(eventType, fallback);
+    }
+}
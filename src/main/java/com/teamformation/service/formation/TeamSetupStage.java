@@ -0,0 +1,78 @@
+package com.teamformation.service.formation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Function;
+
+/**
+ * Creates the empty teams for a run based on the number of students and the strategy's team size
+ */
+@Slf4j
+public class TeamSetupStage implements FormationStage {
+
+    public enum Sizing {
+        /**
+         * Enough teams that none exceeds the team size
+         */
+        CEILING,
+        /**
+         * totalStudents / teamSize teams, plus one more if that brings the average closer to the team size
+         */
+        BALANCED
+    }
+
+    private final Sizing sizing;
+    private final Function<FormationContext, String> namePrefix;
+
+    public TeamSetupStage(Sizing sizing, String namePrefix) {
+        this(sizing, context -> namePrefix);
+    }
+
+    /**
+     * @param namePrefix Derives the team name prefix from the run, e.g. from the roster contents
+     */
+    public TeamSetupStage(Sizing sizing, Function<FormationContext, String> namePrefix) {
+        this.sizing = sizing;
+        this.namePrefix = namePrefix;
+    }
+
+    @Override
+    public String getName() {
+        return "team-setup";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        int numTeams = teamCount(context.getStudents().size(), context.getTeamSize());
+
+        log.debug("Creating {} teams with approximately {} students per team",
+                numTeams, context.getStudents().size() / numTeams);
+
+        String prefix = namePrefix.apply(context);
+        for (int i = 0; i < numTeams; i++) {
+            context.createTeam(prefix + (i + 1));
+        }
+    }
+
+    int teamCount(int totalStudents, int studentsPerTeam) {
+        if (sizing == Sizing.CEILING) {
+            return Math.max(1, (totalStudents + studentsPerTeam - 1) / studentsPerTeam);
+        }
+
+        int numTeams = Math.max(totalStudents / studentsPerTeam, 1); // At least 1 team
+
+        // If we have remainder, see if we should add another team or stick with current number
+        if (totalStudents % studentsPerTeam > 0) {
+            // Calculate average team size with current number of teams vs adding one more team
+            double currentAvg = (double) totalStudents / numTeams;
+            double nextAvg = (double) totalStudents / (numTeams + 1);
+
+            // If adding another team makes the distribution more even, do it
+            if (Math.abs(nextAvg - studentsPerTeam) < Math.abs(currentAvg - studentsPerTeam)) {
+                numTeams++;
+            }
+        }
+
+        return numTeams;
+    }
+}
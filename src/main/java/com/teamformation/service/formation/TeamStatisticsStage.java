@@ -0,0 +1,15 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Team;
+
+/**
+ * Final stage that records statistics on each team. Teams can also be described one at a time,
+ * so that a roster update only re-describes the teams it changed.
+ */
+public interface TeamStatisticsStage extends FormationStage {
+
+    /**
+     * Records the statistics of one team
+     */
+    void describe(Team team);
+}
@@ -0,0 +1,126 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.TimeZoneGroup;
+import com.teamformation.util.TimeZones;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Places the remaining students by time zone compatibility while keeping team sizes even.
+ * Each student goes to the open team with the best score of
+ * 2 * (members in compatible time zones, weighted by compatibility order) + open places,
+ * among the open teams without a member of the student's batch and track; only if every open team
+ * has one does the batch/track constraint give way.
+ */
+@Slf4j
+public class TimeZoneStage implements FormationStage {
+
+    @Override
+    public String getName() {
+        return "time-zone";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        List<Team> teams = context.getTeams();
+        int numTeams = teams.size();
+        int numGroups = TimeZones.GROUPS.size();
+
+        int[] remainingSpots = context.computeRemainingSpots();
+        context.setRemainingSpots(remainingSpots);
+
+        // Time zone counts per team, kept up to date as students are placed
+        int[][] tzCounts = new int[numTeams][numGroups];
+        for (int i = 0; i < numTeams; i++) {
+            for (int g = 0; g < numGroups; g++) {
+                tzCounts[i][g] = teams.get(i).countByTimeZone(TimeZoneGroup.at(g));
+            }
+        }
+
+        // Group the remaining students by time zone
+        List<List<Student>> remainingByTimeZone = new ArrayList<>();
+        for (int g = 0; g < numGroups; g++) {
+            remainingByTimeZone.add(new ArrayList<>());
+        }
+        for (Student student : context.unassignedStudents(s -> true)) {
+            TimeZoneGroup group = student.getProfile().getTimeZone();
+            remainingByTimeZone.get((group != null ? group : TimeZoneGroup.OTHER).ordinal()).add(student);
+        }
+
+        for (int g = 0; g < numGroups; g++) {
+            List<Student> tzStudents = remainingByTimeZone.get(g);
+            if (tzStudents.isEmpty()) {
+                continue;
+            }
+
+            String timeZone = TimeZones.GROUPS.get(g);
+            log.debug("Assigning {} remaining students from {} time zone", tzStudents.size(), timeZone);
+
+            // Same time zone is most compatible, followed by the compatible zones
+            List<String> compatibleZones = new ArrayList<>();
+            compatibleZones.add(timeZone);
+            compatibleZones.addAll(TimeZones.compatibleWith(timeZone));
+
+            int[] zoneIndexes = new int[compatibleZones.size()];
+            double[] weights = new double[compatibleZones.size()];
+            for (int j = 0; j < compatibleZones.size(); j++) {
+                zoneIndexes[j] = TimeZones.GROUPS.indexOf(compatibleZones.get(j));
+                // Weight decreases with compatibility order
+                weights[j] = 1.0 / (j + 1);
+            }
+
+            // Teams with room, best score first (scores are negated for the min-heap)
+            TeamAllocator allocator = new TeamAllocator(numTeams);
+            for (int i = 0; i < numTeams; i++) {
+                if (remainingSpots[i] > 0) {
+                    allocator.offer(i, -score(tzCounts[i], remainingSpots[i], zoneIndexes, weights));
+                }
+            }
+
+            for (Student student : tzStudents) {
+                // Rows sharing an email with a placed student are skipped
+                if (context.isAssigned(student)) {
+                    continue;
+                }
+
+                int batchTrack = context.batchTrackOf(student);
+                int bestTeam = allocator.peek(team -> !context.hasBatchTrack(team, batchTrack),
+                        context.teamsWithBatchTrack(batchTrack) + 1);
+
+                // If no team has room, use the team with the most space
+                if (bestTeam < 0) {
+                    bestTeam = FillRemainingStage.mostSpace(remainingSpots);
+                }
+
+                context.place(student, teams.get(bestTeam));
+                remainingSpots[bestTeam]--;
+                if (student.getProfile().getTimeZone() != null) {
+                    tzCounts[bestTeam][g]++;
+                }
+
+                // Only the chosen team's score changes
+                if (remainingSpots[bestTeam] <= 0) {
+                    allocator.remove(bestTeam);
+                } else if (allocator.contains(bestTeam)) {
+                    allocator.offer(bestTeam, -score(tzCounts[bestTeam], remainingSpots[bestTeam], zoneIndexes, weights));
+                }
+            }
+        }
+    }
+
+    /**
+     * Members in compatible time zones, weighted by compatibility order, count double:
+     * time zone compatibility is more important than room in the team
+     */
+    private static double score(int[] teamTzCounts, int remainingSpots, int[] zoneIndexes, double[] weights) {
+        double tzScore = 0;
+        for (int j = 0; j < zoneIndexes.length; j++) {
+            tzScore += teamTzCounts[zoneIndexes[j]] * weights[j];
+        }
+        return tzScore * 2 + remainingSpots;
+    }
+}
@@ -0,0 +1,57 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Tops up teams that still have room with the unassigned students of each track,
+ * balancing the number of members per track. Students without a track are grouped as "Unknown".
+ */
+@Slf4j
+public class TrackFillStage implements FormationStage {
+
+    private static final String[] KNOWN_TRACKS = {"SDET", "DA", "DVLPR", "SMPO"};
+
+    @Override
+    public String getName() {
+        return "track-fill";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        // Check if we still have space in teams
+        boolean teamsHaveSpace = context.getTeams().stream()
+                .anyMatch(team -> team.getSize() < context.getTeamSize());
+        if (!teamsHaveSpace) {
+            return;
+        }
+
+        Map<String, List<Student>> trackGroups = new LinkedHashMap<>();
+        for (String track : KNOWN_TRACKS) {
+            trackGroups.put(track, new ArrayList<>());
+        }
+        for (Student student : context.unassignedStudents(s -> true)) {
+            trackGroups.computeIfAbsent(trackKey(student), k -> new ArrayList<>()).add(student);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Track distribution: {}", trackGroups.entrySet().stream()
+                    .map(e -> e.getKey() + ": " + e.getValue().size())
+                    .collect(Collectors.joining(", ")));
+        }
+
+        trackGroups.forEach((track, students) -> CappedBalanceStage.distribute(context, students, track,
+                team -> team.countByTrack(track)));
+    }
+
+    static String trackKey(Student student) {
+        String track = student.getTrack();
+        return track == null || track.isEmpty() ? "Unknown" : track;
+    }
+}
@@ -0,0 +1,33 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Team;
+
+/**
+ * Records the number of members per track on each team
+ */
+public class TrackStatisticsStage implements TeamStatisticsStage {
+
+    @Override
+    public String getName() {
+        return "statistics";
+    }
+
+    @Override
+    public void apply(FormationContext context) {
+        for (Team team : context.getTeams()) {
+            describe(team);
+        }
+    }
+
+    @Override
+    public void describe(Team team) {
+        if (!team.getMembers().isEmpty()) {
+            team.setStatistics(String.format("SDET: %d, DA: %d, DVLPR: %d, SMPO: %d, Total: %d",
+                team.getSdetCount(),
+                team.getDaCount(),
+                team.getDvlprCount(),
+                team.countByTrack("SMPO"),
+                team.getSize()));
+        }
+    }
+}
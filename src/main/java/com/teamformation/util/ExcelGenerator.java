@@ -5,20 +5,36 @@ import com.teamformation.model.Team;
 import com.teamformation.model.TeamFormationResult;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFFont;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public class ExcelGenerator {
 
+    // Number of rows SXSSF keeps in memory per sheet before flushing them to a temporary file
+    private static final int ROW_ACCESS_WINDOW = 100;
+
     public static ByteArrayInputStream generateExcel(TeamFormationResult result) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook(); 
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            writeExcel(result, out);
+            return new ByteArrayInputStream(out.toByteArray());
+        }
+    }
+
+    /**
+     * Writes the result workbook directly to the given stream.
+     * Rows are built with a bounded SXSSF window, so memory use does not grow with the
+     * number of students. The stream is not closed.
+     */
+    public static void writeExcel(TeamFormationResult result, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+
+        try {
             // Create team sheets
             if (result.getTeams() != null && !result.getTeams().isEmpty()) {
                 // For SQL Bootcamp, separate teams by course type
@@ -53,7 +69,10 @@ public class ExcelGenerator {
             createSummarySheet(workbook, result);
             
             workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
+        } finally {
+            // Remove the temporary files backing the flushed rows
+            workbook.dispose();
+            workbook.close();
         }
     }
     
@@ -88,9 +107,9 @@ public class ExcelGenerator {
         headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
         headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         
-        XSSFFont headerFont = ((XSSFWorkbook) workbook).createFont();
+        Font headerFont = workbook.createFont();
         headerFont.setBold(true);
-        headerFont.setFontHeight(14);
+        headerFont.setFontHeightInPoints((short) 14);
         headerStyle.setFont(headerFont);
         
         // Add header cells - different headers for SQL Bootcamp
@@ -111,7 +130,7 @@ public class ExcelGenerator {
         int rowNum = 1;
         
         CellStyle teamNameStyle = workbook.createCellStyle();
-        XSSFFont teamNameFont = ((XSSFWorkbook) workbook).createFont();
+        Font teamNameFont = workbook.createFont();
         teamNameFont.setBold(true);
         teamNameStyle.setFont(teamNameFont);
         
@@ -252,9 +271,9 @@ public class ExcelGenerator {
         headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
         headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         
-        XSSFFont headerFont = ((XSSFWorkbook) workbook).createFont();
+        Font headerFont = workbook.createFont();
         headerFont.setBold(true);
-        headerFont.setFontHeight(14);
+        headerFont.setFontHeightInPoints((short) 14);
         headerStyle.setFont(headerFont);
         
         // Add header cells
@@ -309,9 +328,9 @@ public class ExcelGenerator {
         headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
         headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         
-        XSSFFont headerFont = ((XSSFWorkbook) workbook).createFont();
+        Font headerFont = workbook.createFont();
         headerFont.setBold(true);
-        headerFont.setFontHeight(14);
+        headerFont.setFontHeightInPoints((short) 14);
         headerStyle.setFont(headerFont);
         
         // Create summary rows
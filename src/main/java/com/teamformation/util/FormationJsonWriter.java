@@ -0,0 +1,192 @@
+package com.teamformation.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.teamformation.model.RosterIssue;
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.TeamFormationResult;
+import com.teamformation.model.ValidationReport;
+import com.teamformation.service.BatchFormation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes formation results as JSON for the REST API.
+ * Fields are written one at a time with a streaming generator, so a page of teams is never
+ * built up as a tree or string first. Only the fields of the roster are written for students,
+ * not their derived attributes.
+ */
+public class FormationJsonWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Writes the result with one page of its teams. The stream is not closed.
+     *
+     * @param id ID the result is stored under
+     * @param page 0-based page number
+     * @param size Teams per page
+     * @param report Problems found in the roster, or null if there were none
+     */
+    public static void writeResult(String id, TeamFormationResult result, int page, int size, ValidationReport report,
+                                   OutputStream out) throws IOException {
+        List<Team> teams = result.getTeams() != null ? result.getTeams() : Collections.emptyList();
+        int totalPages = (teams.size() + size - 1) / size;
+        int from = (int) Math.min((long) page * size, teams.size());
+        int to = Math.min(from + size, teams.size());
+
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            json.writeStartObject();
+            json.writeStringField("id", id);
+            json.writeStringField("eventType", result.getEventType() != null ? result.getEventType().name() : null);
+            json.writeNumberField("totalStudents", result.getTotalStudents());
+            json.writeNumberField("assignedStudents", result.getAssignedStudents());
+            json.writeStringField("assignmentRate", result.getAssignmentRate());
+            json.writeNumberField("balanceScore", result.getBalanceScore());
+            json.writeNumberField("formationAttempts", result.getFormationAttempts());
+            json.writeNumberField("seed", result.getSeed());
+            json.writeStringField("summary", result.getSummary());
+
+            json.writeObjectFieldStart("page");
+            json.writeNumberField("number", page);
+            json.writeNumberField("size", size);
+            json.writeNumberField("totalTeams", teams.size());
+            json.writeNumberField("totalPages", totalPages);
+            json.writeEndObject();
+
+            json.writeArrayFieldStart("teams");
+            for (Team team : teams.subList(from, to)) {
+                writeTeam(json, team);
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("unassignedStudents");
+            if (result.getUnassignedStudents() != null) {
+                for (Student student : result.getUnassignedStudents()) {
+                    writeStudent(json, student);
+                }
+            }
+            json.writeEndArray();
+
+            if (report != null && report.hasIssues()) {
+                writeIssues(json, report);
+            }
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes the outcome of each event of a batch, without teams, and a link to download all formed
+     * events as workbooks. The stream is not closed.
+     *
+     * @param downloadUrl Where the workbooks of the formed events can be downloaded
+     */
+    public static void writeBatch(BatchFormation batch, String downloadUrl, OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            json.writeStartObject();
+            json.writeNumberField("elapsedMillis", batch.getElapsedMillis());
+            writeField(json, "download", downloadUrl);
+            json.writeArrayFieldStart("events");
+            for (BatchFormation.Event event : batch.getEvents()) {
+                json.writeStartObject();
+                json.writeStringField("name", event.getName());
+                writeField(json, "eventType", event.getEventType() != null ? event.getEventType().name() : null);
+                TeamFormationResult result = event.getResult();
+                if (result != null) {
+                    json.writeStringField("id", event.getResultId());
+                    json.writeStringField("location", "/api/v1/formations/" + event.getResultId());
+                    json.writeNumberField("totalStudents", result.getTotalStudents());
+                    json.writeNumberField("assignedStudents", result.getAssignedStudents());
+                    json.writeNumberField("totalTeams", result.getTeams() != null ? result.getTeams().size() : 0);
+                    json.writeNumberField("balanceScore", result.getBalanceScore());
+                    json.writeNumberField("seed", result.getSeed());
+                } else {
+                    writeField(json, "error", event.getErrorMessage());
+                }
+                json.writeNumberField("elapsedMillis", event.getElapsedMillis());
+                if (event.getReport().hasIssues()) {
+                    writeIssues(json, event.getReport());
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes an error with the problems found in the roster, if any. The stream is not closed.
+     */
+    public static void writeError(String message, ValidationReport report, OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            json.writeStartObject();
+            json.writeStringField("error", message);
+            if (report != null && report.hasIssues()) {
+                writeIssues(json, report);
+            }
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeTeam(JsonGenerator json, Team team) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", team.getName());
+        json.writeNumberField("size", team.getSize());
+        json.writeStringField("statistics", team.getStatistics());
+        json.writeArrayFieldStart("members");
+        for (Student student : team.getMembers()) {
+            writeStudent(json, student);
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static void writeStudent(JsonGenerator json, Student student) throws IOException {
+        json.writeStartObject();
+        writeField(json, "email", student.getEmail());
+        writeField(json, "name", student.getName());
+        writeField(json, "track", student.getTrack());
+        writeField(json, "batch", student.getBatch());
+        writeField(json, "courseType", student.getCourseType());
+        writeField(json, "timestamp", student.getTimestamp());
+        writeField(json, "workingStatus", student.getWorkingStatus());
+        writeField(json, "timeZone", student.getTimeZone());
+        writeField(json, "dsAlgoCompletion", student.getDsAlgoCompletion());
+        writeField(json, "previousHackathon", student.getPreviousHackathon());
+        writeField(json, "previousHackathonParticipation", student.getPreviousHackathonParticipation());
+        writeField(json, "apiBootcampCompletion", student.getApiBootcampCompletion());
+        writeField(json, "sqlExpertiseLevel", student.getSqlExpertiseLevel());
+        json.writeEndObject();
+    }
+
+    // Columns the roster did not have are left out rather than written as null
+    private static void writeField(JsonGenerator json, String name, String value) throws IOException {
+        if (value != null) {
+            json.writeStringField(name, value);
+        }
+    }
+
+    private static void writeIssues(JsonGenerator json, ValidationReport report) throws IOException {
+        json.writeNumberField("issueCount", report.getIssueCount());
+        json.writeArrayFieldStart("issues");
+        for (RosterIssue issue : report.getIssues()) {
+            json.writeStartObject();
+            json.writeStringField("kind", issue.getKind().name());
+            json.writeStringField("location", issue.getLocation());
+            json.writeStringField("message", issue.getMessage());
+            writeField(json, "formula", issue.getFormula());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+    }
+}
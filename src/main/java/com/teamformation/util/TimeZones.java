@@ -0,0 +1,38 @@
+package com.teamformation.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Time zone groups shared by the hackathon stages and the team statistics, and which of them
+ * work well together. Students are put in a group by TimeZoneGroup.
+ */
+public final class TimeZones {
+
+    // Main time zone groups, in order of compatibility
+    public static final List<String> GROUPS = Arrays.asList("EST", "CST", "PST", "GMT", "IST", "OTHER");
+
+    private TimeZones() {
+    }
+
+    /**
+     * Time zones that work well with the given one, most compatible first (excluding itself)
+     */
+    public static List<String> compatibleWith(String timeZone) {
+        switch (timeZone) {
+            case "EST":
+                return Arrays.asList("CST", "GMT");
+            case "CST":
+                return Arrays.asList("EST", "PST");
+            case "PST":
+                return Collections.singletonList("CST");
+            case "GMT":
+                return Arrays.asList("EST", "IST");
+            case "IST":
+                return Collections.singletonList("GMT");
+            default:
+                return Arrays.asList("EST", "CST", "PST", "GMT", "IST");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.teamformation.model;
+
+import com.teamformation.util.TimeZones;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeZoneGroupTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "GMT-5|EST",
+            "UTC -04:00|EST",
+            "gmt\u22126|CST",
+            "UTC-7|PST",
+            "GMT -8 (Pacific)|PST",
+            "UTC|GMT",
+            "GMT+0|GMT",
+            "UTC+01:00|GMT",
+            "UTC+2|GMT",
+            "UTC +05:30|IST",
+            "GMT+5:30 India|IST",
+            "UTC+9|OTHER",
+            "UTC-6 Eastern|CST",
+    })
+    void classifiesByOffsetFirst(String timeZone, TimeZoneGroup group) {
+        assertThat(TimeZoneGroup.of(timeZone)).isEqualTo(group);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "EST|EST",
+            "Eastern Time|EST",
+            "America/New_York|EST",
+            "cst|CST",
+            "Chicago|CST",
+            "PDT|PST",
+            "Mountain Standard Time|PST",
+            "Los Angeles|PST",
+            "London|GMT",
+            "BST|GMT",
+            "CET|GMT",
+            "CEST|GMT",
+            "Central European Time|GMT",
+            "IST|IST",
+            "Asia/Kolkata|IST",
+            "Indian Standard Time|IST",
+            "Tokyo|OTHER",
+            "Pacific or Eastern|PST",
+            "Mostly East|OTHER",
+    })
+    void classifiesByFirstKeywordOtherwise(String timeZone, TimeZoneGroup group) {
+        assertThat(TimeZoneGroup.of(timeZone)).isEqualTo(group);
+    }
+
+    @Test
+    void keywordsAgreeWithTheirOffsets() {
+        assertThat(TimeZoneGroup.of("CET")).isEqualTo(TimeZoneGroup.of("UTC+01:00"));
+        assertThat(TimeZoneGroup.of("CEST")).isEqualTo(TimeZoneGroup.of("UTC+02:00"));
+        assertThat(TimeZoneGroup.of("EDT")).isEqualTo(TimeZoneGroup.of("UTC-04:00"));
+        assertThat(TimeZoneGroup.of("PST")).isEqualTo(TimeZoneGroup.of("UTC-08:00"));
+        assertThat(TimeZoneGroup.of("IST")).isEqualTo(TimeZoneGroup.of("UTC+05:30"));
+    }
+
+    @Test
+    void noTimeZoneHasNoGroup() {
+        assertThat(TimeZoneGroup.of(null)).isNull();
+        assertThat(TimeZoneGroup.of("")).isEqualTo(TimeZoneGroup.OTHER);
+    }
+
+    @Test
+    void classifiesConsistentlyPastTheCacheLimit() {
+        for (int i = 0; i < 3000; i++) {
+            assertThat(TimeZoneGroup.of("EST " + i)).isEqualTo(TimeZoneGroup.EST);
+            assertThat(TimeZoneGroup.of("UTC+5:30")).isEqualTo(TimeZoneGroup.IST);
+        }
+    }
+
+    @Test
+    void groupsFollowTheOrderOfTimeZones() {
+        for (int i = 0; i < TimeZones.GROUPS.size(); i++) {
+            assertThat(TimeZoneGroup.at(i).name()).isEqualTo(TimeZones.GROUPS.get(i));
+        }
+    }
+}
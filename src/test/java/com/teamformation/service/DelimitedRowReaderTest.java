@@ -0,0 +1,117 @@
+package com.teamformation.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DelimitedRowReaderTest {
+
+    @Test
+    void readsPlainRecordsWithEmptyFieldsAsNull() throws IOException {
+        assertThat(records("a,b,c\n1,,3\r\n,,\n", ','))
+                .containsExactly(Arrays.asList("a", "b", "c"), Arrays.asList("1", null, "3"), Arrays.asList(null, null, null));
+    }
+
+    @Test
+    void readsQuotedFieldsWithDelimitersQuotesAndLineBreaks() throws IOException {
+        assertThat(records("\"Doe, Jane\",\"say \"\"hi\"\"\",\"line one\nline two\"\nnext,\"\",x\n", ','))
+                .containsExactly(Arrays.asList("Doe, Jane", "say \"hi\"", "line one\nline two"),
+                        Arrays.asList("next", "", "x"));
+    }
+
+    @Test
+    void readsTabSeparatedRecords() throws IOException {
+        assertThat(records("a\tb,c\n1\t2\n", '\t'))
+                .containsExactly(Arrays.asList("a", "b,c"), Arrays.asList("1", "2"));
+    }
+
+    @Test
+    void skipsByteOrderMarkAndBlankLines() throws IOException {
+        assertThat(records("\uFEFFemail,name\n\n\r\nx@example.com,X", ','))
+                .containsExactly(Arrays.asList("email", "name"), Arrays.asList("x@example.com", "X"));
+    }
+
+    @Test
+    void skipsByteOrderMarkDeliveredAlone() throws IOException {
+        DelimitedRowReader rows = new DelimitedRowReader(new OneCharReader("\uFEFFa,b\n"), ',');
+
+        assertThat(rows.next()).containsExactly("a", "b");
+        assertThat(rows.next()).isNull();
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThatThrownBy(() -> records("a,b\n\"open,c\nd\n", ','))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("line 2");
+    }
+
+    @Test
+    void rejectsFieldOverLengthCap() {
+        String field = String.join("", Collections.nCopies(DelimitedRowReader.MAX_FIELD_LENGTH + 1, "x"));
+
+        assertThatThrownBy(() -> records("\"" + field + "\"\n", ','))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exceeds");
+    }
+
+    @Test
+    void acceptsFieldAtLengthCap() throws IOException {
+        String field = String.join("", Collections.nCopies(DelimitedRowReader.MAX_FIELD_LENGTH, "x"));
+
+        assertThat(records(field + "\n", ',')).containsExactly(Collections.singletonList(field));
+    }
+
+    @Test
+    void rejectsRecordOverFieldCap() {
+        String line = String.join("", Collections.nCopies(DelimitedRowReader.MAX_FIELDS, ","));
+
+        assertThatThrownBy(() -> records(line + "\n", ','))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("more than " + DelimitedRowReader.MAX_FIELDS + " fields");
+    }
+
+    private static List<List<String>> records(String content, char delimiter) throws IOException {
+        DelimitedRowReader rows = new DelimitedRowReader(new StringReader(content), delimiter);
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = rows.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Returns one character per read, so the byte order mark arrives in a buffer of its own
+     */
+    private static final class OneCharReader extends Reader {
+        private final String content;
+        private int position;
+
+        OneCharReader(String content) {
+            this.content = content;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == content.length()) {
+                return -1;
+            }
+            buffer[offset] = content.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
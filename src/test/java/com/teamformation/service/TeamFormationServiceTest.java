@@ -0,0 +1,102 @@
+package com.teamformation.service;
+
+import com.teamformation.metrics.FormationMetrics;
+import com.teamformation.model.EventType;
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.TeamFormationResult;
+import com.teamformation.service.formation.FormationOptimizer;
+import com.teamformation.service.formation.TeamFormationStrategyRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamFormationServiceTest {
+
+    private static final String[] TRACKS = {"SDET", "DA", "DVLPR", "SMPO"};
+    private static final String[] TIME_ZONES = {"EST", "CST", "PST", "GMT", "IST"};
+    private static final String[] COURSE_TYPES = {"Full Course", "Advanced"};
+    private static final String[] EXPERTISE = {"Beginner", "Intermediate", "Advanced"};
+
+    @ParameterizedTest
+    @EnumSource(EventType.class)
+    void sameSeedFormsSameTeams(EventType eventType) {
+        // Several attempts on two workers, so attempts finishing in any order must not change the result
+        TeamFormationService service = service(4, 2);
+
+        TeamFormationResult first = service.formTeams(students(150, 11), eventType, 42L);
+        TeamFormationResult second = service.formTeams(students(150, 11), eventType, 42L);
+
+        assertThat(first.getSeed()).isEqualTo(42L);
+        assertThat(membersOf(second)).isEqualTo(membersOf(first));
+        assertThat(emails(second.getUnassignedStudents())).isEqualTo(emails(first.getUnassignedStudents()));
+        assertThat(second.getBalanceScore()).isEqualTo(first.getBalanceScore());
+        assertThat(second.getSummary()).isEqualTo(first.getSummary());
+    }
+
+    @Test
+    void unseededRunKeepsSeedThatReproducesIt() {
+        TeamFormationService service = service(2, 1);
+
+        TeamFormationResult random = service.formTeams(students(120, 5), EventType.PYTHON_HACKATHON);
+        TeamFormationResult again = service.formTeams(students(120, 5), EventType.PYTHON_HACKATHON, random.getSeed());
+
+        assertThat(membersOf(again)).isEqualTo(membersOf(random));
+    }
+
+    private static TeamFormationService service(int attempts, int parallelism) {
+        return new TeamFormationService(TeamFormationStrategyRegistry.withDefaultStrategies(),
+                new FormationOptimizer(attempts, 0, parallelism, FormationMetrics.NOOP));
+    }
+
+    /**
+     * Emails of each team's members, in team order
+     */
+    private static List<List<String>> membersOf(TeamFormationResult result) {
+        List<List<String>> members = new ArrayList<>();
+        for (Team team : result.getTeams()) {
+            List<String> teamMembers = new ArrayList<>();
+            teamMembers.add(team.getName());
+            teamMembers.addAll(emails(team.getMembers()));
+            members.add(teamMembers);
+        }
+        return members;
+    }
+
+    private static List<String> emails(List<Student> students) {
+        return students.stream().map(Student::getEmail).collect(Collectors.toList());
+    }
+
+    /**
+     * A fresh roster each call, since forming teams standardizes the students' tracks in place
+     */
+    private static List<Student> students(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String yesNo = random.nextBoolean() ? "Yes" : "No";
+            students.add(Student.builder()
+                    .email("s" + i + "@example.com")
+                    .name("Student " + i)
+                    .track(TRACKS[random.nextInt(TRACKS.length)])
+                    .batch("B" + (1 + random.nextInt(3)))
+                    .courseType(COURSE_TYPES[random.nextInt(COURSE_TYPES.length)])
+                    .workingStatus(random.nextBoolean() ? "Yes" : "No")
+                    .timeZone(TIME_ZONES[random.nextInt(TIME_ZONES.length)])
+                    .dsAlgoCompletion(random.nextBoolean() ? "Yes" : "No")
+                    .previousHackathon(yesNo)
+                    .previousHackathonParticipation(yesNo)
+                    .apiBootcampCompletion(random.nextBoolean() ? "Yes" : "No")
+                    .sqlExpertiseLevel(EXPERTISE[random.nextInt(EXPERTISE.length)])
+                    .build());
+        }
+        return students;
+    }
+}
@@ -0,0 +1,180 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.RosterIssue;
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.TeamFormationResult;
+import com.teamformation.model.Track;
+import com.teamformation.model.ValidationReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RosterUpdatePlacerTest {
+
+    private static final EventType EVENT = EventType.PYTHON_HACKATHON;
+
+    private final TeamFormationStrategy strategy = TeamFormationStrategyRegistry.withDefaultStrategies().getStrategy(EVENT);
+
+    @Test
+    void removeCountsEveryStudentRemoved() {
+        List<Student> students = TestRosters.students(20, 1);
+        // The roster repeats an email in two teams and in the unassigned list
+        Student repeated = copyOf(students.get(0));
+        Student repeatedUnassigned = copyOf(students.get(0));
+        TeamFormationResult result = result(students.subList(0, 18), 3, Arrays.asList(students.get(18), repeatedUnassigned));
+        result.getTeams().get(2).addMember(repeated);
+        List<Student> unassigned = new ArrayList<>(result.getUnassignedStudents());
+        RosterUpdatePlacer placer = placer(result, unassigned);
+        ValidationReport report = new ValidationReport();
+
+        int removed = placer.remove(Arrays.asList(" S0@Example.com ", "s18@example.com", "s5@example.com", "nobody@example.com"), report);
+
+        assertThat(removed).isEqualTo(5);
+        assertThat(unassigned).isEmpty();
+        assertThat(report.getIssues()).extracting(RosterIssue::getKind).containsExactly(RosterIssue.Kind.UNKNOWN_STUDENT);
+        assertThat(emailsOf(placer.changedTeams())).doesNotContain("s0@example.com", "s5@example.com");
+    }
+
+    @Test
+    void addPlacesNewcomersInSmallestTeamsAndSkipsKnownOrInvalidStudents() {
+        List<Student> students = TestRosters.students(14, 2);
+        TeamFormationResult result = result(students, 3, new ArrayList<>());
+        RosterUpdateIndex index = new RosterUpdateIndex(strategy, result);
+        RosterUpdatePlacer placer = new RosterUpdatePlacer(strategy, index, new ArrayList<>());
+        ValidationReport report = new ValidationReport();
+
+        Student nameless = Student.builder().email("x@example.com").build();
+        int added = placer.add(Arrays.asList(TestRosters.students("new", 1, 3).get(0), copyOf(students.get(4)), nameless), report);
+
+        assertThat(added).isEqualTo(1);
+        assertThat(report.getIssues()).extracting(RosterIssue::getKind)
+                .containsExactly(RosterIssue.Kind.DUPLICATE_EMAIL, RosterIssue.Kind.INVALID_ROW);
+        // 14 students in 3 teams leave one team of 4; the newcomer joins it
+        assertThat(index.teams()).extracting(Team::getSize).containsOnly(5);
+    }
+
+    @Test
+    void originalTeamsAreNotChanged() {
+        TeamFormationResult result = result(TestRosters.students(30, 4), 5, new ArrayList<>());
+        List<List<String>> before = result.getTeams().stream().map(RosterUpdatePlacerTest::emailsOf).collect(Collectors.toList());
+        RosterUpdatePlacer placer = placer(result, new ArrayList<>());
+
+        placer.remove(Arrays.asList("s0@example.com", "s5@example.com", "s10@example.com"), new ValidationReport());
+        placer.add(TestRosters.students("new", 4, 5), new ValidationReport());
+        placer.backfill();
+
+        assertThat(result.getTeams().stream().map(RosterUpdatePlacerTest::emailsOf).collect(Collectors.toList()))
+                .isEqualTo(before);
+    }
+
+    @Test
+    void backfillRefillsTeamsStudentsLeft() {
+        TeamFormationResult result = result(TestRosters.students(30, 6), 5, new ArrayList<>());
+        RosterUpdateIndex index = new RosterUpdateIndex(strategy, result);
+        RosterUpdatePlacer placer = new RosterUpdatePlacer(strategy, index, new ArrayList<>());
+        // Team 1 holds s0, s5, s10, s15, s20, s25
+        placer.remove(Arrays.asList("s0@example.com", "s5@example.com", "s10@example.com"), new ValidationReport());
+        double beforeBackfill = index.balanceScore();
+
+        int moves = placer.backfill();
+
+        assertThat(moves).isPositive();
+        assertThat(index.balanceScore()).isLessThan(beforeBackfill);
+        assertThat(index.teams()).allSatisfy(team -> assertThat(team.getSize()).isBetween(4, 6));
+    }
+
+    @Test
+    void chainedUpdatesKeepScoreAndTotalsEqualToFullRecount() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Student> students = TestRosters.students(120, 8);
+        TeamFormationResult result = result(students.subList(0, 110), 12, new ArrayList<>(students.subList(110, 120)));
+        RosterUpdateIndex index = new RosterUpdateIndex(strategy, result);
+        List<Student> unassigned = new ArrayList<>(result.getUnassignedStudents());
+        List<String> present = students.stream().map(Student::getEmail).collect(Collectors.toList());
+
+        for (int update = 0; update < 20; update++) {
+            RosterUpdatePlacer placer = new RosterUpdatePlacer(strategy, index, unassigned);
+            Collections.shuffle(present, new Random(random.nextLong()));
+            List<String> leaving = new ArrayList<>(present.subList(0, 1 + random.nextInt(8)));
+            present.removeAll(leaving);
+            List<Student> joining = TestRosters.students("u" + update + "-", random.nextInt(8), random.nextLong());
+            joining.forEach(student -> present.add(student.getEmail()));
+
+            assertThat(placer.remove(leaving, new ValidationReport())).isEqualTo(leaving.size());
+            assertThat(placer.add(joining, new ValidationReport())).isEqualTo(joining.size());
+            placer.backfill();
+
+            List<Team> teams = index.teams();
+            assertThat(index.balanceScore()).isCloseTo(FormationScorer.score(teams), within(1e-6));
+            assertTotalsMatch(index.totals(), FormationTotals.of(teams, unassigned));
+            assertThat(index.totals().getStudents()).isEqualTo(present.size());
+        }
+    }
+
+    private RosterUpdatePlacer placer(TeamFormationResult result, List<Student> unassigned) {
+        return new RosterUpdatePlacer(strategy, new RosterUpdateIndex(strategy, result), unassigned);
+    }
+
+    /**
+     * Result with the students dealt to the teams in roster order
+     */
+    private static TeamFormationResult result(List<Student> students, int numTeams, List<Student> unassigned) {
+        List<Team> teams = new ArrayList<>();
+        for (int t = 0; t < numTeams; t++) {
+            teams.add(new Team("Team " + (t + 1), new ArrayList<>(), null));
+        }
+        for (int i = 0; i < students.size(); i++) {
+            teams.get(i % numTeams).addMember(students.get(i));
+        }
+        return TeamFormationResult.builder()
+                .eventType(EVENT)
+                .teams(teams)
+                .unassignedStudents(unassigned)
+                .totalStudents(students.size() + unassigned.size())
+                .assignedStudents(students.size())
+                .balanceScore(FormationScorer.score(teams))
+                .build();
+    }
+
+    private static void assertTotalsMatch(FormationTotals actual, FormationTotals expected) {
+        assertThat(actual.getTeams()).isEqualTo(expected.getTeams());
+        assertThat(actual.getAssigned()).isEqualTo(expected.getAssigned());
+        assertThat(actual.getUnassigned()).isEqualTo(expected.getUnassigned());
+        assertThat(actual.getWorking()).isEqualTo(expected.getWorking());
+        assertThat(actual.getPreviousHackathon()).isEqualTo(expected.getPreviousHackathon());
+        for (Track track : Track.values()) {
+            assertThat(actual.track(track)).isEqualTo(expected.track(track));
+        }
+    }
+
+    private static Student copyOf(Student student) {
+        return Student.builder()
+                .email(student.getEmail())
+                .name(student.getName() + " again")
+                .track(student.getTrack())
+                .batch(student.getBatch())
+                .workingStatus(student.getWorkingStatus())
+                .previousHackathon(student.getPreviousHackathon())
+                .timeZone(student.getTimeZone())
+                .build();
+    }
+
+    private static List<String> emailsOf(List<Team> teams) {
+        return teams.stream().flatMap(team -> emailsOf(team).stream()).collect(Collectors.toList());
+    }
+
+    private static List<String> emailsOf(Team team) {
+        return team.getMembers().stream().map(Student::getEmail).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,146 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.EventType;
+import com.teamformation.model.Student;
+import com.teamformation.model.Team;
+import com.teamformation.model.TimeZoneGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SwapRefinementStageTest {
+
+    private static final int TEAMS = 7;
+
+    @Test
+    void swapDeltaMatchesFullRescore() {
+        FormationContext context = roundRobin(TestRosters.students(80, 1), TEAMS);
+        Roster roster = context.getRoster();
+        SplittableRandom random = new SplittableRandom(2);
+
+        for (int trial = 0; trial < 500; trial++) {
+            int a = random.nextInt(roster.size());
+            int b = random.nextInt(roster.size());
+            int[] teamOf = context.getTeamOf();
+            int teamA = teamOf[a];
+            int teamB = teamOf[b];
+            if (teamA == teamB) {
+                continue;
+            }
+
+            double delta = swapDelta(context, a, b);
+            double before = FormationScorer.score(context.getTeams());
+            swap(context, a, b);
+
+            assertThat(FormationScorer.score(context.getTeams()) - before).isCloseTo(delta, within(1e-9));
+            assertThat(FormationScorer.score(context)).isCloseTo(FormationScorer.score(context.getTeams()), within(1e-9));
+        }
+    }
+
+    @Test
+    void timeZonePairsDeltaMatchesCountedPairs() {
+        int zones = TimeZoneGroup.values().length;
+        SplittableRandom random = new SplittableRandom(3);
+
+        for (int trial = 0; trial < 1000; trial++) {
+            int[] counts = new int[zones];
+            for (int z = 0; z < zones; z++) {
+                counts[z] = random.nextInt(4);
+            }
+            // The leaving member's zone is one the team has, or none
+            int out = random.nextInt(zones + 1) - 1;
+            if (out >= 0 && counts[out] == 0) {
+                counts[out] = 1;
+            }
+            int in = random.nextInt(zones + 1) - 1;
+
+            int[] after = counts.clone();
+            if (out >= 0) {
+                after[out]--;
+            }
+            if (in >= 0) {
+                after[in]++;
+            }
+
+            assertThat(SwapRefinementStage.timeZonePairsDelta(counts, out, in))
+                    .isEqualTo(incompatiblePairs(after) - incompatiblePairs(counts));
+        }
+    }
+
+    @Test
+    void refinementNeverWorsensTheFormation() {
+        for (long seed = 0; seed < 5; seed++) {
+            FormationContext context = roundRobin(TestRosters.students(60, seed), 6);
+            double before = FormationScorer.score(context.getTeams());
+
+            new SwapRefinementStage(50, 0, 0).apply(context);
+
+            assertThat(FormationScorer.score(context.getTeams())).isLessThanOrEqualTo(before);
+            assertThat(FormationScorer.score(context)).isCloseTo(FormationScorer.score(context.getTeams()), within(1e-9));
+        }
+    }
+
+    /**
+     * Context with the students dealt to the teams in roster order
+     */
+    private static FormationContext roundRobin(List<Student> students, int numTeams) {
+        FormationContext context = new FormationContext(EventType.PYTHON_HACKATHON, students, 10, 0);
+        for (int t = 0; t < numTeams; t++) {
+            context.createTeam("Team " + (t + 1));
+        }
+        for (int i = 0; i < students.size(); i++) {
+            context.place(students.get(i), context.getTeams().get(i % numTeams));
+        }
+        return context;
+    }
+
+    /**
+     * Builds the stage's counters from the context, as the stage does, and prices the swap
+     */
+    private static double swapDelta(FormationContext context, int a, int b) {
+        Roster roster = context.getRoster();
+        int[] teamOf = context.getTeamOf();
+        int numTeams = context.getTeams().size();
+        int[][] members = new int[numTeams][];
+        int[][] attributeCounts = new int[numTeams][Roster.BALANCED_ATTRIBUTES];
+        int[][] timeZoneCounts = new int[numTeams][TimeZoneGroup.values().length];
+
+        for (int t = 0; t < numTeams; t++) {
+            List<Student> teamMembers = context.getTeams().get(t).getMembers();
+            members[t] = new int[teamMembers.size()];
+            for (int m = 0; m < teamMembers.size(); m++) {
+                int s = roster.positionOf(teamMembers.get(m));
+                members[t][m] = s;
+                for (int bits = roster.balanced[s]; bits != 0; bits &= bits - 1) {
+                    attributeCounts[t][Integer.numberOfTrailingZeros(bits)]++;
+                }
+                if (roster.timeZone[s] >= 0) {
+                    timeZoneCounts[t][roster.timeZone[s]]++;
+                }
+            }
+        }
+
+        return SwapRefinementStage.swapDelta(a, b, teamOf[a], teamOf[b], roster.balanced, roster.timeZone,
+                roster.batchTrackId, members, attributeCounts, timeZoneCounts);
+    }
+
+    private static void swap(FormationContext context, int a, int b) {
+        Roster roster = context.getRoster();
+        Team teamA = context.getTeams().get(context.getTeamOf()[a]);
+        Team teamB = context.getTeams().get(context.getTeamOf()[b]);
+        context.move(roster.student(a), teamA, teamB);
+        context.move(roster.student(b), teamB, teamA);
+    }
+
+    private static int incompatiblePairs(int[] counts) {
+        int pairs = 0;
+        for (int[] pair : FormationScorer.INCOMPATIBLE_TIME_ZONES) {
+            pairs += counts[pair[0]] * counts[pair[1]];
+        }
+        return pairs;
+    }
+}
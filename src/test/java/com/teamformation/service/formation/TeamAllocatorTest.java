@@ -0,0 +1,133 @@
+package com.teamformation.service.formation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamAllocatorTest {
+
+    private static final int TEAMS = 40;
+
+    @Test
+    void peekReturnsLeastLoadedTeamWithLowestIndexOnTies() {
+        TeamAllocator allocator = TeamAllocator.of(new int[] {3, 1, 2, 1, 5});
+
+        assertThat(allocator.peek()).isEqualTo(1);
+        allocator.adjust(1, 1);
+        assertThat(allocator.peek()).isEqualTo(3);
+        allocator.remove(3);
+        assertThat(allocator.peek()).isEqualTo(1);
+        assertThat(allocator.peek(4)).containsExactly(1, 2, 0, 4);
+    }
+
+    @Test
+    void emptyAllocatorHasNoTeam() {
+        TeamAllocator allocator = new TeamAllocator(3);
+
+        assertThat(allocator.isEmpty()).isTrue();
+        assertThat(allocator.peek()).isEqualTo(-1);
+        assertThat(allocator.peek(team -> true, 3)).isEqualTo(-1);
+        assertThat(allocator.peek(3)).isEmpty();
+    }
+
+    @Test
+    void filteredPeekFallsBackToLeastLoadedTeam() {
+        TeamAllocator allocator = TeamAllocator.of(new int[] {0, 1, 2, 3});
+
+        assertThat(allocator.peek(team -> team == 2, 4)).isEqualTo(2);
+        assertThat(allocator.peek(team -> team == 3, 2)).isEqualTo(0);
+        assertThat(allocator.peek(team -> false, 4)).isEqualTo(0);
+        // Looking does not change the order
+        assertThat(allocator.peek(4)).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    void matchesLinearScanUnderRandomOperations() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] initial = new int[TEAMS];
+        for (int t = 0; t < TEAMS; t++) {
+            initial[t] = random.nextInt(5);
+        }
+        TeamAllocator allocator = TeamAllocator.of(initial);
+        double[] loads = new double[TEAMS];
+        boolean[] present = new boolean[TEAMS];
+        for (int t = 0; t < TEAMS; t++) {
+            loads[t] = initial[t];
+            present[t] = true;
+        }
+
+        for (int step = 0; step < 20_000; step++) {
+            int team = random.nextInt(TEAMS);
+            switch (random.nextInt(4)) {
+                case 0:
+                    // Whole loads, so ties are common
+                    double load = random.nextInt(8);
+                    allocator.offer(team, load);
+                    loads[team] = load;
+                    present[team] = true;
+                    break;
+                case 1:
+                    if (present[team]) {
+                        int delta = random.nextInt(5) - 2;
+                        allocator.adjust(team, delta);
+                        loads[team] += delta;
+                    }
+                    break;
+                case 2:
+                    allocator.remove(team);
+                    present[team] = false;
+                    break;
+                default:
+                    break;
+            }
+
+            assertThat(allocator.contains(team)).isEqualTo(present[team]);
+            assertThat(allocator.peek()).isEqualTo(scan(loads, present, t -> true, TEAMS));
+
+            int limit = 1 + random.nextInt(6);
+            int rejected = random.nextInt(TEAMS);
+            IntPredicate accept = t -> t % 3 != rejected % 3;
+            assertThat(allocator.peek(accept, limit)).isEqualTo(scan(loads, present, accept, limit));
+            assertThat(allocator.peek(limit)).containsExactly(leastLoaded(loads, present, limit));
+        }
+    }
+
+    /**
+     * First team the filter accepts among the limit least-loaded, else the least-loaded, by linear scans
+     */
+    private static int scan(double[] loads, boolean[] present, IntPredicate accept, int limit) {
+        int[] least = leastLoaded(loads, present, limit);
+        if (least.length == 0) {
+            return -1;
+        }
+        for (int team : least) {
+            if (accept.test(team)) {
+                return team;
+            }
+        }
+        return least[0];
+    }
+
+    private static int[] leastLoaded(double[] loads, boolean[] present, int limit) {
+        boolean[] taken = new boolean[loads.length];
+        int count = 0;
+        for (boolean isPresent : present) {
+            count += isPresent ? 1 : 0;
+        }
+        int[] least = new int[Math.min(limit, count)];
+        for (int i = 0; i < least.length; i++) {
+            int best = -1;
+            for (int t = 0; t < loads.length; t++) {
+                if (present[t] && !taken[t] && (best < 0 || loads[t] < loads[best])) {
+                    best = t;
+                }
+            }
+            least[i] = best;
+            taken[best] = true;
+        }
+        return least;
+    }
+}
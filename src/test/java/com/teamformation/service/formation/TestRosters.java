@@ -0,0 +1,44 @@
+package com.teamformation.service.formation;
+
+import com.teamformation.model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Random hackathon rosters for the formation tests, with every attribute the scorer balances
+ */
+final class TestRosters {
+
+    private static final String[] TRACKS = {"SDET", "DA", "DVLPR", "SMPO", "Other"};
+    private static final String[] TIME_ZONES = {"EST", "CST", "PST", "GMT", "IST", "Tokyo", null};
+    private static final String[] BATCHES = {"B1", "B2", "B3", null};
+
+    private TestRosters() {
+    }
+
+    static List<Student> students(int count, long seed) {
+        return students("s", count, seed);
+    }
+
+    /**
+     * @param prefix Start of the emails, so rosters drawn for the same formation do not share students
+     */
+    static List<Student> students(String prefix, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(Student.builder()
+                    .email(prefix + i + "@example.com")
+                    .name("Student " + prefix + i)
+                    .track(TRACKS[random.nextInt(TRACKS.length)])
+                    .batch(BATCHES[random.nextInt(BATCHES.length)])
+                    .workingStatus(random.nextBoolean() ? "Yes" : "No")
+                    .previousHackathon(random.nextBoolean() ? "Yes" : "No")
+                    .timeZone(TIME_ZONES[random.nextInt(TIME_ZONES.length)])
+                    .build());
+        }
+        return students;
+    }
+}